@@ -0,0 +1,28 @@
+// In src/main/java/hyperscript/bench/BenchmarkMain.java
+package hyperscript.bench;
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+// JMH's own main, except results are always written as JSON, so two versions
+// can be compared (e.g. with jmh.morethan.io, or any JSON diff):
+//
+//   java -jar target/benchmarks.jar                       -> target/jmh-result.json
+//   java -jar target/benchmarks.jar Interpreter -rff v2.json
+//
+// Any other JMH option (-f, -wi, -i, -prof gc ...) works as usual.
+public class BenchmarkMain {
+    private static final String DEFAULT_RESULT_FILE = "target/jmh-result.json";
+
+    public static void main(String[] args) throws Exception {
+        CommandLineOptions commandLine = new CommandLineOptions(args);
+        ChainedOptionsBuilder options = new OptionsBuilder()
+            .parent(commandLine)
+            .resultFormat(ResultFormatType.JSON);
+        if (!commandLine.getResult().hasValue()) options.result(DEFAULT_RESULT_FILE);
+        new Runner(options.build()).run();
+    }
+}
@@ -0,0 +1,177 @@
+// In src/main/java/hyperscript/bench/ChannelBenchmark.java
+package hyperscript.bench;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.BenchmarkParams;
+
+// Channel throughput against java.util.concurrent.LinkedBlockingQueue, both
+// bounded to the same capacity, with the same threads doing the same work:
+//   java -jar target/benchmarks.jar Channel
+//
+// Each group is senders plus one receiver sharing a fresh queue every
+// iteration; 'queue' picks the contender:
+//   spsc       - 1 sender, offer/poll        (SpscChannel vs LBQ)
+//   spscDrain  - 1 sender, drain 64 at once  (SpscChannel vs LBQ.drainTo)
+//   mpsc       - 4 senders, offer/poll       (MpscChannel vs LBQ)
+//   mpscDrain  - 4 senders, drain 64 at once (MpscChannel vs LBQ.drainTo)
+//
+// Nothing blocks or backs off, so a full or empty queue just makes that call
+// fail. The score counts every call; the 'received' counter (messages that
+// actually got through, per microsecond) is the number to compare.
+@State(Scope.Group)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class ChannelBenchmark {
+    private static final int CAPACITY = 1024;
+    private static final int BATCH = 64;
+    private static final Object MESSAGE = 1.0; // Boxed once, so nobody measures the allocator
+
+    // What the benchmark needs from a queue, so both kinds run the very same code.
+    private interface Queue {
+        boolean offer(Object value);
+        Object poll();
+        int drain(List<Object> into, int limit);
+    }
+
+    @Param({ "channel", "lbq" })
+    public String queue;
+
+    private Queue contender;
+    private final List<Object> batch = new ArrayList<>(BATCH); // The group's one receiver only
+
+    @Setup(Level.Iteration)
+    public void setUp(BenchmarkParams params) {
+        boolean singleSender = params.getBenchmark().contains(".spsc");
+        contender = queue.equals("lbq") ? lbq() : channel(singleSender);
+    }
+
+    // Per thread: how many calls got a message through.
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class Counters {
+        public long sent;
+        public long received;
+
+        @Setup(Level.Iteration)
+        public void clear() {
+            sent = 0;
+            received = 0;
+        }
+    }
+
+    // =========================================================================
+    // == THE GROUPS
+    // =========================================================================
+
+    @Benchmark
+    @Group("spsc")
+    @GroupThreads(1)
+    public void spscSend(Counters counters) {
+        send(counters);
+    }
+
+    @Benchmark
+    @Group("spsc")
+    @GroupThreads(1)
+    public void spscReceive(Counters counters) {
+        receive(counters);
+    }
+
+    @Benchmark
+    @Group("spscDrain")
+    @GroupThreads(1)
+    public void spscDrainSend(Counters counters) {
+        send(counters);
+    }
+
+    @Benchmark
+    @Group("spscDrain")
+    @GroupThreads(1)
+    public void spscDrainReceive(Counters counters) {
+        drain(counters);
+    }
+
+    @Benchmark
+    @Group("mpsc")
+    @GroupThreads(4)
+    public void mpscSend(Counters counters) {
+        send(counters);
+    }
+
+    @Benchmark
+    @Group("mpsc")
+    @GroupThreads(1)
+    public void mpscReceive(Counters counters) {
+        receive(counters);
+    }
+
+    @Benchmark
+    @Group("mpscDrain")
+    @GroupThreads(4)
+    public void mpscDrainSend(Counters counters) {
+        send(counters);
+    }
+
+    @Benchmark
+    @Group("mpscDrain")
+    @GroupThreads(1)
+    public void mpscDrainReceive(Counters counters) {
+        drain(counters);
+    }
+
+    private void send(Counters counters) {
+        if (contender.offer(MESSAGE)) counters.sent++;
+    }
+
+    private void receive(Counters counters) {
+        if (contender.poll() != null) counters.received++;
+    }
+
+    private void drain(Counters counters) {
+        batch.clear();
+        counters.received += contender.drain(batch, BATCH);
+    }
+
+    // =========================================================================
+    // == THE CONTENDERS
+    // =========================================================================
+
+    private static Queue channel(boolean singleSender) {
+        Object channel = Engine.newChannel(singleSender, CAPACITY);
+        return new Queue() {
+            public boolean offer(Object value) { return Engine.offer(channel, value); }
+            public Object poll() { return Engine.poll(channel); }
+            public int drain(List<Object> into, int limit) { return Engine.drain(channel, into, limit); }
+        };
+    }
+
+    private static Queue lbq() {
+        LinkedBlockingQueue<Object> queue = new LinkedBlockingQueue<>(CAPACITY);
+        return new Queue() {
+            public boolean offer(Object value) { return queue.offer(value); }
+            public Object poll() { return queue.poll(); }
+            public int drain(List<Object> into, int limit) { return queue.drainTo(into, limit); }
+        };
+    }
+}
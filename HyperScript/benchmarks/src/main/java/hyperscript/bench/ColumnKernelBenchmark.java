@@ -0,0 +1,61 @@
+// In src/main/java/hyperscript/bench/ColumnKernelBenchmark.java
+package hyperscript.bench;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+// The integrate kernel (position += velocity * dt) over one column, both ways,
+// in the same forks:
+//   java -jar target/benchmarks.jar ColumnKernel
+//
+//   axpy        - ColumnKernels.axpy: VectorColumnKernels, since the forks get
+//                 jdk.incubator.vector (the scalar loop if -Dhyperscript.vector=false)
+//   scalarAxpy  - ColumnKernels.scalarAxpy: the plain counted loop
+//
+// From 10k entities (in L2) to 10M (well past any cache), so the vector win
+// can be seen shrinking to whatever memory bandwidth allows.
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 2, jvmArgsAppend = { "--add-modules", "jdk.incubator.vector" })
+public class ColumnKernelBenchmark {
+    private static final double DT = 0.016;
+
+    @Param({ "10000", "1000000", "10000000" })
+    public int entities;
+
+    // The columns are state, so the kernel's writes can't be optimized away.
+    private double[] position;
+    private double[] velocity;
+
+    @Setup
+    public void setUp() {
+        position = new double[entities];
+        velocity = new double[entities];
+        Arrays.fill(velocity, 1.5);
+        if (!Engine.vectorized()) System.err.println("Note: axpy is running the scalar loop.");
+    }
+
+    @Benchmark
+    public void axpy() {
+        Engine.axpy(position, velocity, DT, 0, entities);
+    }
+
+    @Benchmark
+    public void scalarAxpy() {
+        Engine.scalarAxpy(position, velocity, DT, 0, entities);
+    }
+}
@@ -0,0 +1,59 @@
+// In src/main/java/hyperscript/bench/ContextBenchmark.java
+package hyperscript.bench;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+// How well independent Contexts scale. Every call runs a small loop in a
+// Context of its own thread, sharing nothing with the others, so throughput
+// should grow with the thread count up to the number of cores:
+//   java -jar target/benchmarks.jar Context -t 1
+//   java -jar target/benchmarks.jar Context -t 4     (or -t max)
+//
+//   freshContext   - a new Context per script, then Context.eval
+//   pooledContext  - PreparedScript.run(inputs), which reuses its thread's
+//                    Context and only resets it (compiled once, in setUp)
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class ContextBenchmark {
+    private static final String SCRIPT =
+        "let total = 0\n" +
+        "let i = 0\n" +
+        "while (i < 2000) do\n" +
+        "    total = total + i * 2\n" +
+        "    i = i + 1\n" +
+        "end\n" +
+        "total\n";
+
+    private Object prepared;
+
+    @Setup
+    public void setUp() {
+        prepared = Engine.compile(SCRIPT);
+    }
+
+    @Benchmark
+    public int freshContext() {
+        int status = Engine.eval(Engine.silentContext(), SCRIPT);
+        if (status != 0) throw new IllegalStateException("The benchmark script failed: " + status);
+        return status;
+    }
+
+    @Benchmark
+    public Object pooledContext() {
+        return Engine.runPooled(prepared);
+    }
+}
@@ -0,0 +1,253 @@
+// In src/main/java/hyperscript/bench/Engine.java
+package hyperscript.bench;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Executable;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.util.List;
+import java.util.Map;
+
+// The engine lives in the default package with package-private classes, which
+// code in a named package (and JMH insists on one) can't name. So every entry
+// point is looked up ONCE here, opened up, and adapted to plain Object types
+// (primitives stay primitive on the channel and column-kernel handles, which
+// run per message or per frame).
+// They're static final MethodHandles, so the JIT inlines straight through them
+// and the benchmarks measure the engine, not the reflection.
+final class Engine {
+    private Engine() {}
+
+    private static final MethodHandle NEW_SCANNER;          // (String) -> Scanner
+    private static final MethodHandle SCAN_TOKENS;          // (Scanner) -> List<Token>
+    private static final MethodHandle NEW_FLOW_PARSER;      // (List<Token>) -> FlowParser
+    private static final MethodHandle FLOW_PARSE;           // (FlowParser) -> List<Stmt>
+    private static final MethodHandle NEW_BLUEPRINT_PARSER; // (List<Token>) -> BlueprintParser
+    private static final MethodHandle BLUEPRINT_PARSE;      // (BlueprintParser) -> List<BlueprintStmt>
+    private static final MethodHandle COMPILE;              // (String) -> PreparedScript
+    private static final MethodHandle RUN;                  // (PreparedScript, Context, Map) -> Object
+    private static final MethodHandle RUN_POOLED;           // (PreparedScript, Map) -> Object
+    private static final MethodHandle NEW_CONTEXT;          // (PrintStream, PrintStream) -> Context
+    private static final MethodHandle EVAL;                 // (Context, String) -> int
+    private static final MethodHandle NEW_SPSC_CHANNEL;     // (String, int) -> SpscChannel
+    private static final MethodHandle NEW_MPSC_CHANNEL;     // (String, int) -> MpscChannel
+    private static final MethodHandle CHANNEL_OFFER;        // (Channel, Object) -> boolean
+    private static final MethodHandle CHANNEL_POLL;         // (Channel) -> Object
+    private static final MethodHandle CHANNEL_DRAIN;        // (Channel, List, int) -> int
+    private static final MethodHandle AXPY;                 // (double[], double[], double, int, int) -> void
+    private static final MethodHandle SCALAR_AXPY;          // (double[], double[], double, int, int) -> void
+
+    static {
+        try {
+            Class<?> scanner = Class.forName("Scanner");
+            Class<?> flowParser = Class.forName("FlowParser");
+            Class<?> blueprintParser = Class.forName("BlueprintParser");
+            Class<?> preparedScript = Class.forName("PreparedScript");
+            Class<?> context = Class.forName("Context");
+            Class<?> channel = Class.forName("Channel");
+
+            NEW_SCANNER = open(scanner.getDeclaredConstructor(String.class));
+            SCAN_TOKENS = open(scanner.getDeclaredMethod("scanTokens"));
+            NEW_FLOW_PARSER = open(flowParser.getDeclaredConstructor(List.class));
+            FLOW_PARSE = open(flowParser.getDeclaredMethod("parse"));
+            NEW_BLUEPRINT_PARSER = open(blueprintParser.getDeclaredConstructor(List.class));
+            BLUEPRINT_PARSE = open(blueprintParser.getDeclaredMethod("parse"));
+            COMPILE = open(preparedScript.getDeclaredMethod("compile", String.class));
+            RUN = open(preparedScript.getDeclaredMethod("run", context, Map.class));
+            RUN_POOLED = open(preparedScript.getDeclaredMethod("run", Map.class));
+            NEW_CONTEXT = open(context.getDeclaredConstructor(PrintStream.class, PrintStream.class));
+            EVAL = openErased(context.getDeclaredMethod("eval", String.class));
+            NEW_SPSC_CHANNEL = open(Class.forName("SpscChannel").getDeclaredConstructor(String.class, int.class));
+            NEW_MPSC_CHANNEL = open(Class.forName("MpscChannel").getDeclaredConstructor(String.class, int.class));
+            CHANNEL_OFFER = openErased(channel.getDeclaredMethod("offer", Object.class));
+            CHANNEL_POLL = openErased(channel.getDeclaredMethod("poll"));
+            CHANNEL_DRAIN = openErased(channel.getDeclaredMethod("drain", List.class, int.class));
+            Class<?> kernels = Class.forName("ColumnKernels");
+            Class<?>[] axpy = { double[].class, double[].class, double.class, int.class, int.class };
+            AXPY = open(kernels, "axpy", axpy);
+            SCALAR_AXPY = open(kernels, "scalarAxpy", axpy);
+        } catch (ReflectiveOperationException error) {
+            throw new ExceptionInInitializerError(error);
+        }
+    }
+
+    // Makes a handle whose parameters and result are all Object, whatever the real types.
+    private static MethodHandle open(Executable executable) throws IllegalAccessException {
+        MethodHandle handle = unreflect(executable);
+        return handle.asType(MethodType.genericMethodType(handle.type().parameterCount()));
+    }
+
+    // A kernel over columns keeps its exact types: nothing to adapt, nothing to box.
+    private static MethodHandle open(Class<?> owner, String name, Class<?>... parameters)
+            throws ReflectiveOperationException {
+        return unreflect(owner.getDeclaredMethod(name, parameters));
+    }
+
+    // Same, but ints and booleans stay as they are, so nothing is boxed per call.
+    private static MethodHandle openErased(Executable executable) throws IllegalAccessException {
+        MethodHandle handle = unreflect(executable);
+        return handle.asType(handle.type().erase());
+    }
+
+    private static MethodHandle unreflect(Executable executable) throws IllegalAccessException {
+        executable.setAccessible(true);
+        return executable instanceof Constructor
+            ? MethodHandles.lookup().unreflectConstructor((Constructor<?>)executable)
+            : MethodHandles.lookup().unreflect((Method)executable);
+    }
+
+    private static final PrintStream SILENT = new PrintStream(OutputStream.nullOutputStream());
+
+    // =========================================================================
+    // == THE PIPELINE
+    // =========================================================================
+
+    static List<?> scan(String source) {
+        try {
+            return (List<?>)(Object)SCAN_TOKENS.invokeExact((Object)NEW_SCANNER.invokeExact((Object)source));
+        } catch (Throwable error) {
+            throw rethrow(error);
+        }
+    }
+
+    static List<?> parseFlow(List<?> tokens) {
+        try {
+            return (List<?>)(Object)FLOW_PARSE.invokeExact((Object)NEW_FLOW_PARSER.invokeExact((Object)tokens));
+        } catch (Throwable error) {
+            throw rethrow(error);
+        }
+    }
+
+    static List<?> parseBlueprint(List<?> tokens) {
+        try {
+            return (List<?>)(Object)BLUEPRINT_PARSE.invokeExact((Object)NEW_BLUEPRINT_PARSER.invokeExact((Object)tokens));
+        } catch (Throwable error) {
+            throw rethrow(error);
+        }
+    }
+
+    // A PreparedScript, as an opaque Object.
+    static Object compile(String source) {
+        try {
+            return (Object)COMPILE.invokeExact((Object)source);
+        } catch (Throwable error) {
+            throw rethrow(error);
+        }
+    }
+
+    // A Context whose output goes nowhere, so printing scripts measure the
+    // interpreter and not the terminal.
+    static Object silentContext() {
+        try {
+            return (Object)NEW_CONTEXT.invokeExact((Object)SILENT, (Object)SILENT);
+        } catch (Throwable error) {
+            throw rethrow(error);
+        }
+    }
+
+    static Object run(Object script, Object context) {
+        try {
+            return (Object)RUN.invokeExact(script, context, (Object)Map.of());
+        } catch (Throwable error) {
+            throw rethrow(error);
+        }
+    }
+
+    // PreparedScript.run(inputs): in the calling thread's pooled Context.
+    static Object runPooled(Object script) {
+        try {
+            return (Object)RUN_POOLED.invokeExact(script, (Object)Map.of());
+        } catch (Throwable error) {
+            throw rethrow(error);
+        }
+    }
+
+    // Context.eval: scan, parse and run. Returns the exit status.
+    static int eval(Object context, String source) {
+        try {
+            return (int)EVAL.invokeExact(context, (Object)source);
+        } catch (Throwable error) {
+            throw rethrow(error);
+        }
+    }
+
+    // =========================================================================
+    // == CHANNELS
+    // =========================================================================
+
+    // An SpscChannel (one sender) or an MpscChannel, as an opaque Object.
+    static Object newChannel(boolean singleSender, int capacity) {
+        try {
+            MethodHandle constructor = singleSender ? NEW_SPSC_CHANNEL : NEW_MPSC_CHANNEL;
+            return (Object)constructor.invokeExact((Object)"bench", (Object)capacity);
+        } catch (Throwable error) {
+            throw rethrow(error);
+        }
+    }
+
+    static boolean offer(Object channel, Object value) {
+        try {
+            return (boolean)CHANNEL_OFFER.invokeExact(channel, value);
+        } catch (Throwable error) {
+            throw rethrow(error);
+        }
+    }
+
+    static Object poll(Object channel) {
+        try {
+            return (Object)CHANNEL_POLL.invokeExact(channel);
+        } catch (Throwable error) {
+            throw rethrow(error);
+        }
+    }
+
+    static int drain(Object channel, List<Object> into, int limit) {
+        try {
+            return (int)CHANNEL_DRAIN.invokeExact(channel, (Object)into, limit);
+        } catch (Throwable error) {
+            throw rethrow(error);
+        }
+    }
+
+    // =========================================================================
+    // == COLUMN KERNELS
+    // =========================================================================
+
+    // ColumnKernels.axpy: the vector path if the JVM has jdk.incubator.vector.
+    static void axpy(double[] target, double[] source, double factor, int from, int to) {
+        try {
+            AXPY.invokeExact(target, source, factor, from, to);
+        } catch (Throwable error) {
+            throw rethrow(error);
+        }
+    }
+
+    static void scalarAxpy(double[] target, double[] source, double factor, int from, int to) {
+        try {
+            SCALAR_AXPY.invokeExact(target, source, factor, from, to);
+        } catch (Throwable error) {
+            throw rethrow(error);
+        }
+    }
+
+    static boolean vectorized() {
+        try {
+            Field vectorized = Class.forName("ColumnKernels").getDeclaredField("VECTORIZED");
+            vectorized.setAccessible(true);
+            return vectorized.getBoolean(null);
+        } catch (ReflectiveOperationException error) {
+            throw new IllegalStateException(error);
+        }
+    }
+
+    private static RuntimeException rethrow(Throwable error) {
+        if (error instanceof RuntimeException) return (RuntimeException)error;
+        if (error instanceof Error) throw (Error)error;
+        return new IllegalStateException(error);
+    }
+}
@@ -0,0 +1,64 @@
+// In src/main/java/hyperscript/bench/FrontEndBenchmark.java
+package hyperscript.bench;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+// Scanner.scanTokens, FlowParser.parse and BlueprintParser.parse, on small and
+// large generated sources (see Sources). The parsers get pre-scanned tokens, so
+// each benchmark measures one stage only.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class FrontEndBenchmark {
+    @Param({ "small", "large" })
+    public String size;
+
+    private String flowSource;
+    private String blueprintSource;
+    private List<?> flowTokens;
+    private List<?> blueprintTokens;
+
+    @Setup
+    public void setUp() {
+        int units = Sources.units(size);
+        flowSource = Sources.flow(units);
+        blueprintSource = Sources.blueprint(units);
+        flowTokens = Engine.scan(flowSource);
+        blueprintTokens = Engine.scan(blueprintSource);
+    }
+
+    @Benchmark
+    public List<?> scanFlow() {
+        return Engine.scan(flowSource);
+    }
+
+    @Benchmark
+    public List<?> scanBlueprint() {
+        return Engine.scan(blueprintSource);
+    }
+
+    @Benchmark
+    public List<?> parseFlow() {
+        return Engine.parseFlow(flowTokens);
+    }
+
+    @Benchmark
+    public List<?> parseBlueprint() {
+        return Engine.parseBlueprint(blueprintTokens);
+    }
+}
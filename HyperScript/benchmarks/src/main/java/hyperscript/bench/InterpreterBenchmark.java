@@ -0,0 +1,107 @@
+// In src/main/java/hyperscript/bench/InterpreterBenchmark.java
+package hyperscript.bench;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+// The tree-walker on its own: every script is compiled once in setUp, so only
+// interpretation is measured. Each returns a value, which JMH consumes.
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class InterpreterBenchmark {
+
+    // Binary operators and assignment in a tight while loop.
+    private static final String ARITHMETIC =
+        "let total = 0\n" +
+        "let i = 0\n" +
+        "while (i < 10000) do\n" +
+        "    total = total + i * 2 - i / 4 + i % 3\n" +
+        "    i = i + 1\n" +
+        "end\n" +
+        "return total\n";
+
+    // Function calls: argument lists, environments and the Return exception.
+    private static final String RECURSION =
+        "function fib(n)\n" +
+        "    if (n < 2) then\n" +
+        "        return n\n" +
+        "    end\n" +
+        "    return fib(n - 1) + fib(n - 2)\n" +
+        "end\n" +
+        "return fib(18)\n";
+
+    // '..' on a growing string, with number-to-string conversions.
+    private static final String CONCATENATION =
+        "let text = \"\"\n" +
+        "let i = 0\n" +
+        "while (i < 2000) do\n" +
+        "    text = text .. \"item \" .. i .. \", \"\n" +
+        "    i = i + 1\n" +
+        "end\n" +
+        "return text\n";
+
+    // A global read from eight blocks deep, so every lookup walks the chain.
+    private static final String DEEP_SCOPE;
+
+    static {
+        StringBuilder source = new StringBuilder("let step = 1\nlet total = 0\n");
+        int depth = 8;
+        for (int level = 0; level < depth; level++) source.append("if (true) then\n");
+        source.append("let i = 0\n")
+            .append("while (i < 5000) do\n")
+            .append("    total = total + step\n")
+            .append("    i = i + step\n")
+            .append("end\n");
+        for (int level = 0; level < depth; level++) source.append("end\n");
+        source.append("return total\n");
+        DEEP_SCOPE = source.toString();
+    }
+
+    private Object context;
+    private Object arithmetic;
+    private Object recursion;
+    private Object concatenation;
+    private Object deepScope;
+
+    @Setup
+    public void setUp() {
+        context = Engine.silentContext();
+        arithmetic = Engine.compile(ARITHMETIC);
+        recursion = Engine.compile(RECURSION);
+        concatenation = Engine.compile(CONCATENATION);
+        deepScope = Engine.compile(DEEP_SCOPE);
+    }
+
+    @Benchmark
+    public Object arithmeticLoop() {
+        return Engine.run(arithmetic, context);
+    }
+
+    @Benchmark
+    public Object callHeavyRecursion() {
+        return Engine.run(recursion, context);
+    }
+
+    @Benchmark
+    public Object stringConcatenation() {
+        return Engine.run(concatenation, context);
+    }
+
+    @Benchmark
+    public Object deepScopeLookup() {
+        return Engine.run(deepScope, context);
+    }
+}
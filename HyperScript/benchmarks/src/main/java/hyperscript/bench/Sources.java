@@ -0,0 +1,75 @@
+// In src/main/java/hyperscript/bench/Sources.java
+package hyperscript.bench;
+
+// Generated programs for the front-end benchmarks. The same 'units' always
+// give the same text, so results are comparable from version to version.
+//
+//   small = 1 unit    (~20 lines, the size of a typical attachment)
+//   large = 2000 units (~40k lines, a whole project in one file)
+final class Sources {
+    private Sources() {}
+
+    static int units(String size) {
+        switch (size) {
+            case "small": return 1;
+            case "large": return 2000;
+            default: throw new IllegalArgumentException("Unknown source size: " + size);
+        }
+    }
+
+    // Functions, loops, branches, strings and arithmetic: every kind of token.
+    static String flow(int units) {
+        StringBuilder source = new StringBuilder();
+        for (int i = 0; i < units; i++) {
+            source.append("// Unit ").append(i).append('\n')
+                .append("function step").append(i).append("(x, y, dt)\n")
+                .append("    let speed = x * 2.5 + y / 3 - dt ^ 2\n")
+                .append("    if (speed >= 100 and not (x == y)) then\n")
+                .append("        return \"fast \" .. speed\n")
+                .append("    else\n")
+                .append("        speed = speed % 7\n")
+                .append("    end\n")
+                .append("    return speed\n")
+                .append("end\n")
+                .append("let counter").append(i).append(" = 0\n")
+                .append("while (counter").append(i).append(" < 10) do\n")
+                .append("    counter").append(i).append(" = counter").append(i).append(" + 1\n")
+                .append("    if (counter").append(i).append(" != 5 or false) then\n")
+                .append("        print step").append(i).append("(counter").append(i).append(", 4, 0.016)\n")
+                .append("    end\n")
+                .append("end\n");
+        }
+        return source.toString();
+    }
+
+    // One Sector of shared types, then Classes with fragments and attachments.
+    static String blueprint(int units) {
+        StringBuilder source = new StringBuilder();
+        source.append("Sector Physics {\n")
+            .append("    component vector2{crunch(x: int, y: int)}\n")
+            .append("    role velocity2 is vector2\n")
+            .append("    role position2 is vector2\n")
+            .append("    role mass is int\n")
+            .append("}\n");
+        for (int i = 0; i < units; i++) {
+            source.append("Class Unit").append(i).append(" {\n")
+                .append("    Attributes {\n")
+                .append("        weight: mass\n")
+                .append("        height: int\n")
+                .append("        speed: velocity2\n")
+                .append("        position: position2\n")
+                .append("    }\n")
+                .append("    Fragment Turret {\n")
+                .append("        Attributes {\n")
+                .append("            length: int\n")
+                .append("            angle: double\n")
+                .append("        }\n")
+                .append("    }\n")
+                .append("    Attachments {\n")
+                .append("        Flow: Unit").append(i).append(".hfl\n")
+                .append("    }\n")
+                .append("}\n");
+        }
+        return source.toString();
+    }
+}
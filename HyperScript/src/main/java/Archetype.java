@@ -0,0 +1,240 @@
+// In src/main/java/Archetype.java
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// An Archetype is the ECS form of a Blueprint Class.
+// Instead of one object per entity, every scalar in the class gets its own
+// primitive column, and an entity is just a row index into those columns.
+// 'position: position2' becomes the two columns 'position.x' and 'position.y',
+// and a Fragment's attributes are flattened in as 'Barrel.length' (see BlueprintLowering).
+class Archetype {
+
+    /** One declared attribute, and the run of columns it occupies. */
+    static class Attribute {
+        final String name;   // e.g. 'position'
+        final String type;   // The declared type, e.g. 'position2'
+        final int offset;    // Index of the first column
+        final int width;     // How many columns (1 for primitives)
+
+        Attribute(String name, String type, int offset, int width) {
+            this.name = name;
+            this.type = type;
+            this.offset = offset;
+            this.width = width;
+        }
+    }
+
+    /** Told about every write, so indexes over the columns can keep up. */
+    interface WriteListener {
+        void written(Archetype archetype, int firstColumn, int columnCount, int fromRow, int toRow);
+    }
+
+    /**
+     * The change counter shared by every archetype in a World.
+     * Writes are stamped with the current tick; a ChangeQuery remembers the
+     * tick it last ran at and then advances it.
+     */
+    static class Clock {
+        long tick = 1;
+    }
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    // Change detection is tracked per chunk of rows, not per row, so a write
+    // costs one array store and a query can skip untouched chunks wholesale.
+    static final int CHUNK_SHIFT = 10;
+    static final int CHUNK_SIZE = 1 << CHUNK_SHIFT; // 1024 rows
+
+    final String name;
+    private final List<Attribute> attributes = new ArrayList<>();
+    private final List<String> columnNames = new ArrayList<>();
+    private final Map<String, Integer> columnIndex = new HashMap<>();
+    private final Map<String, Attribute> attributeIndex = new HashMap<>();
+    private final Map<String, Attribute> typeIndex = new HashMap<>(); // declared type -> first attribute
+    private final List<SystemBinding> systems = new ArrayList<>();
+
+    private double[][] columns = new double[0][];
+    private long[][] chunkVersions = new long[0][]; // [column][chunk] = tick of the last write
+    private Clock clock = new Clock();
+    private int capacity = INITIAL_CAPACITY;
+    private int size = 0;
+    private WriteListener listener; // null when nobody is watching
+
+    Archetype(String name) {
+        this.name = name;
+    }
+
+    // =========================================================================
+    // == SCHEMA
+    // =========================================================================
+
+    // Adds an attribute that spans one column per sub-field.
+    // An empty 'fields' list means a single primitive column.
+    void addAttribute(String attributeName, String type, List<String> fields) {
+        int offset = columnNames.size();
+        if (fields.isEmpty()) {
+            addColumn(attributeName);
+        } else {
+            for (String field : fields) {
+                addColumn(attributeName + "." + field);
+            }
+        }
+        Attribute attribute = new Attribute(attributeName, type, offset, columnNames.size() - offset);
+        attributes.add(attribute);
+        attributeIndex.put(attributeName, attribute);
+        typeIndex.putIfAbsent(type, attribute);
+    }
+
+    private void addColumn(String columnName) {
+        columnIndex.put(columnName, columnNames.size());
+        columnNames.add(columnName);
+        columns = Arrays.copyOf(columns, columnNames.size());
+        columns[columns.length - 1] = new double[capacity];
+        chunkVersions = Arrays.copyOf(chunkVersions, columnNames.size());
+        chunkVersions[chunkVersions.length - 1] = new long[chunkCount(capacity)];
+    }
+
+    private static int chunkCount(int rows) {
+        return (rows + CHUNK_SIZE - 1) >> CHUNK_SHIFT;
+    }
+
+    List<Attribute> attributes() {
+        return Collections.unmodifiableList(attributes);
+    }
+
+    Attribute attribute(String attributeName) {
+        return attributeIndex.get(attributeName);
+    }
+
+    // Finds the first attribute declared with the given type (role or component).
+    Attribute attributeOfType(String type) {
+        return typeIndex.get(type);
+    }
+
+    void addSystem(SystemBinding system) {
+        systems.add(system);
+    }
+
+    void replaceSystems(List<SystemBinding> replacements) {
+        systems.clear();
+        systems.addAll(replacements);
+    }
+
+    List<SystemBinding> systems() {
+        return Collections.unmodifiableList(systems);
+    }
+
+    List<String> columnNames() {
+        return Collections.unmodifiableList(columnNames);
+    }
+
+    // Returns -1 if there is no such column.
+    int columnIndex(String columnName) {
+        Integer index = columnIndex.get(columnName);
+        return index == null ? -1 : index;
+    }
+
+    // =========================================================================
+    // == ROWS
+    // =========================================================================
+
+    int size() {
+        return size;
+    }
+
+    // Appends a zeroed row and returns its index. Rows past size() are always
+    // zero: grow() pads with zeros, and restore() clears the rows it drops.
+    int addRow() {
+        if (size == capacity) grow();
+        return size++;
+    }
+
+    // Resizes to exactly 'rows' live rows, e.g. when loading a WorldSnapshot.
+    // The caller overwrites the columns and then calls markWritten.
+    void restore(int rows) {
+        while (capacity < rows) grow();
+        if (rows < size) {
+            // Dropped rows must read as zero when addRow hands them out again,
+            // and chunks with no live rows left have nothing to report.
+            int firstEmptyChunk = chunkCount(rows);
+            for (int column = 0; column < columns.length; column++) {
+                Arrays.fill(columns[column], rows, size, 0.0);
+                Arrays.fill(chunkVersions[column], firstEmptyChunk, chunkCount(size), 0L);
+            }
+        }
+        size = rows;
+    }
+
+    private void grow() {
+        capacity *= 2;
+        for (int i = 0; i < columns.length; i++) {
+            columns[i] = Arrays.copyOf(columns[i], capacity);
+            chunkVersions[i] = Arrays.copyOf(chunkVersions[i], chunkCount(capacity));
+        }
+    }
+
+    double get(int row, int column) {
+        return columns[column][row];
+    }
+
+    void set(int row, int column, double value) {
+        columns[column][row] = value;
+        chunkVersions[column][row >> CHUNK_SHIFT] = clock.tick;
+        if (listener != null) listener.written(this, column, 1, row, row + 1);
+    }
+
+    // Raw access for the bulk kernels. Only the first size() entries are live.
+    // Whoever writes through this MUST call markWritten afterwards.
+    double[] column(int column) {
+        return columns[column];
+    }
+
+    void markWritten(int firstColumn, int columnCount, int fromRow, int toRow) {
+        if (toRow <= fromRow) return;
+        int firstChunk = fromRow >> CHUNK_SHIFT;
+        int lastChunk = (toRow - 1) >> CHUNK_SHIFT;
+        for (int column = firstColumn; column < firstColumn + columnCount; column++) {
+            Arrays.fill(chunkVersions[column], firstChunk, lastChunk + 1, clock.tick);
+        }
+        if (listener != null) listener.written(this, firstColumn, columnCount, fromRow, toRow);
+    }
+
+    // =========================================================================
+    // == CHANGE DETECTION
+    // =========================================================================
+
+    void useClock(Clock clock) {
+        this.clock = clock;
+    }
+
+    Clock clock() {
+        return clock;
+    }
+
+    // True if any column in [firstColumn, firstColumn + columnCount) was
+    // written in the given chunk after 'sinceTick'.
+    boolean chunkChanged(int chunk, int firstColumn, int columnCount, long sinceTick) {
+        for (int column = firstColumn; column < firstColumn + columnCount; column++) {
+            if (chunkVersions[column][chunk] > sinceTick) return true;
+        }
+        return false;
+    }
+
+    int chunkCount() {
+        return chunkCount(size);
+    }
+
+    void setWriteListener(WriteListener listener) {
+        this.listener = listener;
+    }
+
+    @Override
+    public String toString() {
+        return "<archetype " + name + ">";
+    }
+}
@@ -0,0 +1,159 @@
+// In src/main/java/AstNodeCounter.java
+
+import java.util.List;
+
+// Counts the nodes of a Flow or Blueprint AST, for the Parse events (see
+// PipelineEvents). Only runs while a recording is actually taking them.
+class AstNodeCounter implements Expr.Visitor<Integer>, Stmt.Visitor<Integer>, BlueprintStmt.Visitor<Integer> {
+    static int flow(List<Stmt> statements) {
+        AstNodeCounter counter = new AstNodeCounter();
+        return counter.statements(statements);
+    }
+
+    static int blueprint(List<BlueprintStmt> statements) {
+        AstNodeCounter counter = new AstNodeCounter();
+        int count = 0;
+        for (BlueprintStmt statement : statements) count += statement.accept(counter);
+        return count;
+    }
+
+    private int statements(List<Stmt> statements) {
+        int count = 0;
+        for (Stmt statement : statements) count += statement.accept(this);
+        return count;
+    }
+
+    private int expression(Expr expr) {
+        return expr == null ? 0 : expr.accept(this);
+    }
+
+    // --- Statements ---
+
+    @Override
+    public Integer visitBlockStmt(Stmt.Block stmt) {
+        return 1 + statements(stmt.statements);
+    }
+
+    @Override
+    public Integer visitExpressionStmt(Stmt.Expression stmt) {
+        return 1 + expression(stmt.expression);
+    }
+
+    @Override
+    public Integer visitFunctionStmt(Stmt.Function stmt) {
+        return 1 + statements(stmt.body);
+    }
+
+    @Override
+    public Integer visitIfStmt(Stmt.If stmt) {
+        int count = 1 + expression(stmt.condition) + stmt.thenBranch.accept(this);
+        return stmt.elseBranch == null ? count : count + stmt.elseBranch.accept(this);
+    }
+
+    @Override
+    public Integer visitPrintStmt(Stmt.Print stmt) {
+        return 1 + expression(stmt.expression);
+    }
+
+    @Override
+    public Integer visitReturnStmt(Stmt.Return stmt) {
+        return 1 + expression(stmt.value);
+    }
+
+    @Override
+    public Integer visitVarStmt(Stmt.Var stmt) {
+        return 1 + expression(stmt.initializer);
+    }
+
+    @Override
+    public Integer visitWhileStmt(Stmt.While stmt) {
+        return 1 + expression(stmt.condition) + stmt.body.accept(this);
+    }
+
+    @Override
+    public Integer visitWaitStmt(Stmt.Wait stmt) {
+        return 1 + expression(stmt.duration);
+    }
+
+    @Override
+    public Integer visitEventsStmt(Stmt.Events stmt) {
+        int count = 1;
+        for (Stmt.Function handler : stmt.handlers) count += handler.accept(this);
+        return count;
+    }
+
+    // --- Expressions ---
+
+    @Override
+    public Integer visitAssignExpr(Expr.Assign expr) {
+        return 1 + expression(expr.value);
+    }
+
+    @Override
+    public Integer visitBinaryExpr(Expr.Binary expr) {
+        return 1 + expression(expr.left) + expression(expr.right);
+    }
+
+    @Override
+    public Integer visitCallExpr(Expr.Call expr) {
+        int count = 1 + expression(expr.callee);
+        for (Expr argument : expr.arguments) count += expression(argument);
+        return count;
+    }
+
+    @Override
+    public Integer visitGroupingExpr(Expr.Grouping expr) {
+        return 1 + expression(expr.expression);
+    }
+
+    @Override
+    public Integer visitLiteralExpr(Expr.Literal expr) {
+        return 1;
+    }
+
+    @Override
+    public Integer visitLogicalExpr(Expr.Logical expr) {
+        return 1 + expression(expr.left) + expression(expr.right);
+    }
+
+    @Override
+    public Integer visitUnaryExpr(Expr.Unary expr) {
+        return 1 + expression(expr.right);
+    }
+
+    @Override
+    public Integer visitVariableExpr(Expr.Variable expr) {
+        return 1;
+    }
+
+    // --- Blueprints: a declaration, plus one per field and attachment ---
+
+    @Override
+    public Integer visitSectorStmt(BlueprintStmt.SectorStmt stmt) {
+        int count = 1;
+        for (BlueprintStmt declaration : stmt.declarations) count += declaration.accept(this);
+        return count;
+    }
+
+    @Override
+    public Integer visitClassStmt(BlueprintStmt.ClassStmt stmt) {
+        int count = 1 + stmt.attributes.size() + stmt.attachments.size();
+        for (BlueprintStmt.FragmentStmt fragment : stmt.fragments) count += fragment.accept(this);
+        return count;
+    }
+
+    @Override
+    public Integer visitFragmentStmt(BlueprintStmt.FragmentStmt stmt) {
+        return 1 + stmt.attributes.size() + stmt.attachments.size();
+    }
+
+    @Override
+    public Integer visitComponentStmt(BlueprintStmt.ComponentStmt stmt) {
+        return 1 + stmt.fields.size();
+    }
+
+    @Override
+    public Integer visitRoleStmt(BlueprintStmt.RoleStmt stmt) {
+        return 1;
+    }
+}
@@ -77,6 +77,23 @@ class AstPrinter implements Expr.Visitor<String>, Stmt.Visitor<String> {
         return parenthesize("while", stmt.condition, stmt.body);
     }
 
+    @Override
+    public String visitWaitStmt(Stmt.Wait stmt) {
+        if (stmt.duration == null) return "(yield)";
+        return parenthesize("wait", stmt.duration);
+    }
+
+    @Override
+    public String visitEventsStmt(Stmt.Events stmt) {
+        StringBuilder builder = new StringBuilder();
+        builder.append("(events");
+        for (Stmt.Function handler : stmt.handlers) {
+            builder.append(" ").append(handler.accept(this));
+        }
+        builder.append(")");
+        return builder.toString();
+    }
+
     // --- Visitor Methods for Expressions ---
 
     @Override
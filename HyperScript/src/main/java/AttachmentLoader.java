@@ -0,0 +1,122 @@
+// In src/main/java/AttachmentLoader.java
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+
+// Loads the Flow files that Classes attach, each one exactly once.
+//
+// Several Classes in Tank.hbp attach the same 'Physics.hfl'. Every unique file
+// is scanned and parsed once, on its own core, and the resulting program is
+// shared by every SystemBinding that refers to it. The program list is
+// unmodifiable and the AST nodes only have final fields, so sharing is safe.
+class AttachmentLoader {
+    private final Path projectDir;
+    private final Executor executor;
+    // One future per file. computeIfAbsent makes "parse once" hold even when
+    // two classes ask for the same file at the same moment.
+    private final Map<Path, CompletableFuture<List<Stmt>>> programs = new ConcurrentHashMap<>();
+    // Parsing happens on the executor; errors are reported to the Context that made us.
+    private final Context context = Context.current();
+
+    AttachmentLoader(Path projectDir) {
+        this(projectDir, ForkJoinPool.commonPool());
+    }
+
+    AttachmentLoader(Path projectDir, Executor executor) {
+        this.projectDir = projectDir;
+        this.executor = executor;
+    }
+
+    // Resolves an Attachment path token like 'Physics.hfl' against the project.
+    Path resolve(Token path) {
+        return projectDir.resolve(path.lexeme).normalize();
+    }
+
+    CompletableFuture<List<Stmt>> load(Path file) {
+        return programs.computeIfAbsent(file, key ->
+            CompletableFuture.supplyAsync(() -> context.callIn(() -> parse(key)), executor));
+    }
+
+    // Hands over a program that was already parsed elsewhere (e.g. by the BuildGraph).
+    void preload(Path file, List<Stmt> program) {
+        programs.putIfAbsent(file, CompletableFuture.completedFuture(program));
+    }
+
+    // An attached file was edited: swap in its new program everywhere it's bound.
+    // Returns how many systems were re-bound.
+    int reload(Path file, List<Stmt> program, Collection<Archetype> archetypes) {
+        programs.put(file, CompletableFuture.completedFuture(program));
+        int rebound = 0;
+        for (Archetype archetype : archetypes) {
+            for (SystemBinding system : archetype.systems()) {
+                if (system.kind.equals("Flow") && resolve(system.path).equals(file)) {
+                    system.bind(program);
+                    rebound++;
+                }
+            }
+        }
+        return rebound;
+    }
+
+    private static List<Stmt> parse(Path file) {
+        String source;
+        try {
+            source = new String(Files.readAllBytes(file), Charset.defaultCharset());
+        } catch (IOException error) {
+            throw new UncheckedIOException(error);
+        }
+        String name = file.getFileName().toString();
+        return List.copyOf(PipelineEvents.parseFlow(PipelineEvents.scan(source, name), name));
+    }
+
+    // Starts every Flow attachment of these archetypes loading at once, then
+    // waits and binds each program to its systems. Returns how many systems got a program.
+    int bindAll(Collection<Archetype> archetypes) {
+        List<SystemBinding> pending = new ArrayList<>();
+        List<CompletableFuture<List<Stmt>>> futures = new ArrayList<>();
+        for (Archetype archetype : archetypes) {
+            for (SystemBinding system : archetype.systems()) {
+                if (!system.kind.equals("Flow")) continue;
+                Path file = resolve(system.path);
+                if (!Files.isRegularFile(file)) {
+                    // A missing attachment shouldn't stop the whole project.
+                    context.err.println("[line " + system.path.line + "] Warning: attachment '" +
+                        system.path.lexeme + "' of " + archetype.name + " not found.");
+                    continue;
+                }
+                pending.add(system);
+                futures.add(load(file));
+            }
+        }
+
+        int bound = 0;
+        for (int i = 0; i < pending.size(); i++) {
+            try {
+                pending.get(i).bind(futures.get(i).join());
+                bound++;
+            } catch (RuntimeException error) {
+                Throwable cause = error.getCause() != null ? error.getCause() : error;
+                context.err.println("[line " + pending.get(i).path.line + "] Error: could not load attachment '" +
+                    pending.get(i).path.lexeme + "': " + cause.getMessage());
+                context.hadError = true;
+            }
+        }
+        return bound;
+    }
+
+    // How many distinct files have been parsed (or are being parsed).
+    int uniqueFiles() {
+        return programs.size();
+    }
+}
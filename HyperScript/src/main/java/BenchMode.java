@@ -0,0 +1,226 @@
+// In src/main/java/BenchMode.java
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.io.Reader;
+import java.io.Writer;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Properties;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+// 'HyperScript --bench corpus [options]': runs every program in a corpus
+// directory N times in this process and compares against a stored baseline.
+//
+//   corpus/
+//     ballistics/       <- a project directory (has a .core file)
+//     recursion.hfl     <- a single Flow file
+//     baseline.properties
+//
+// Options:
+//   --runs N          runs per program (default 30)
+//   --threshold P     allowed slowdown in percent before it's a regression (default 15)
+//   --baseline FILE   default: <corpus>/baseline.properties
+//   --save            write this run's numbers as the new baseline
+//
+// For every program:
+//   cold   the first run, with nothing of it JIT-compiled yet
+//   warm   the median of the runs after the first third (the warmup)
+//   alloc  the median bytes allocated by this thread per warm run, and the
+//          rate that works out to over the warm time
+//
+// Warm time and allocation per run are checked against the baseline; if
+// either is more than the threshold above it, the exit status is 1. Cold time
+// is only reported: it's a single sample, and whichever program goes first
+// pays for loading the whole engine, so it's far too noisy to fail a build on.
+// With no baseline yet, the numbers are just saved as the baseline.
+class BenchMode {
+    private static final int DEFAULT_RUNS = 30;
+    private static final double DEFAULT_THRESHOLD_PERCENT = 15;
+    static final String BASELINE_FILE = "baseline.properties";
+
+    static class Result {
+        final String name;
+        final double coldMillis;
+        final double warmMillis;
+        final long allocatedBytes; // Per warm run
+
+        Result(String name, double coldMillis, double warmMillis, long allocatedBytes) {
+            this.name = name;
+            this.coldMillis = coldMillis;
+            this.warmMillis = warmMillis;
+            this.allocatedBytes = allocatedBytes;
+        }
+
+        double allocationRateMBs() {
+            return warmMillis > 0 ? allocatedBytes / 1e6 / (warmMillis / 1e3) : 0;
+        }
+    }
+
+    static int run(String[] args) throws IOException {
+        Path corpus = Paths.get(args.length > 1 && !args[1].startsWith("--") ? args[1] : "benchmarks/corpus");
+        int runs = DEFAULT_RUNS;
+        double threshold = DEFAULT_THRESHOLD_PERCENT;
+        Path baselineFile = corpus.resolve(BASELINE_FILE);
+        boolean save = false;
+        for (int i = 1; i < args.length; i++) {
+            switch (args[i]) {
+                case "--runs": runs = Math.max(2, Integer.parseInt(args[++i])); break;
+                case "--threshold": threshold = Double.parseDouble(args[++i]); break;
+                case "--baseline": baselineFile = Paths.get(args[++i]); break;
+                case "--save": save = true; break;
+                default: // The corpus directory itself
+            }
+        }
+        return run(corpus, runs, threshold, baselineFile, save);
+    }
+
+    static int run(Path corpus, int runs, double threshold, Path baselineFile, boolean save) throws IOException {
+        PrintStream console = System.out;
+        console.println("--- [HyperScript Macro-Benchmarks on " + corpus + ", " + runs + " runs each] ---");
+
+        List<Result> results = new ArrayList<>();
+        for (Path program : programs(corpus)) {
+            Result result = measure(program, runs);
+            if (result == null) {
+                System.err.println(program.getFileName() + " failed. Run it normally to see why.");
+                return 70;
+            }
+            results.add(result);
+        }
+
+        Properties baseline = load(baselineFile);
+        int regressions = 0;
+        console.printf("%-16s %10s %10s %12s %12s  %s%n", "program", "cold ms", "warm ms", "alloc/run", "alloc MB/s", "vs baseline");
+        for (Result result : results) {
+            String verdict;
+            if (baseline == null || !baseline.containsKey(result.name + ".warm.ms")) {
+                verdict = "(no baseline)";
+            } else {
+                double warmChange = change(result.warmMillis, baseline, result.name + ".warm.ms");
+                double allocChange = change(result.allocatedBytes, baseline, result.name + ".alloc.bytes");
+                boolean regressed = warmChange > threshold || allocChange > threshold;
+                if (regressed) regressions++;
+                verdict = String.format("time %+.1f%%, alloc %+.1f%%%s", warmChange, allocChange,
+                    regressed ? "  REGRESSION" : "");
+            }
+            console.printf("%-16s %10.2f %10.3f %12s %12.1f  %s%n", result.name, result.coldMillis,
+                result.warmMillis, bytes(result.allocatedBytes), result.allocationRateMBs(), verdict);
+        }
+
+        if (save || baseline == null) {
+            store(baselineFile, results);
+            console.println("Baseline written to " + baselineFile);
+        }
+        if (regressions > 0) {
+            console.printf("%d of %d programs regressed by more than %.0f%%.%n", regressions, results.size(), threshold);
+            return 1;
+        }
+        return 0;
+    }
+
+    // Every project directory (one with a .core file) and every .hfl file, by name.
+    private static List<Path> programs(Path corpus) throws IOException {
+        try (Stream<Path> stream = Files.list(corpus)) {
+            return stream
+                .filter(path -> path.toString().endsWith(".hfl") || isProject(path))
+                .sorted()
+                .collect(Collectors.toList());
+        }
+    }
+
+    private static boolean isProject(Path path) {
+        if (!Files.isDirectory(path)) return false;
+        try (Stream<Path> stream = Files.list(path)) {
+            return stream.anyMatch(file -> file.toString().endsWith(".core"));
+        } catch (IOException error) {
+            return false;
+        }
+    }
+
+    // =========================================================================
+    // == MEASURING
+    // =========================================================================
+
+    // Each run gets a fresh, silent Context, like a real run of the program.
+    // Returns null if any run fails.
+    private static Result measure(Path program, int runs) throws IOException {
+        PrintStream silent = new PrintStream(OutputStream.nullOutputStream());
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean)ManagementFactory.getThreadMXBean();
+        long[] nanos = new long[runs];
+        long[] allocated = new long[runs];
+
+        Context commandLine = HyperScript.context;
+        try {
+            for (int i = 0; i < runs; i++) {
+                HyperScript.context = new Context(silent, silent);
+                long bytesBefore = threads.getCurrentThreadAllocatedBytes();
+                long start = System.nanoTime();
+                int status = HyperScript.run(program.toString());
+                nanos[i] = System.nanoTime() - start;
+                allocated[i] = threads.getCurrentThreadAllocatedBytes() - bytesBefore;
+                if (status != 0) return null;
+            }
+        } finally {
+            HyperScript.context = commandLine;
+        }
+
+        int warmup = Math.max(1, runs / 3);
+        long[] warmNanos = Arrays.copyOfRange(nanos, warmup, runs);
+        long[] warmAllocated = Arrays.copyOfRange(allocated, warmup, runs);
+        String name = program.getFileName().toString().replace(".hfl", "");
+        return new Result(name, nanos[0] / 1e6, median(warmNanos) / 1e6, median(warmAllocated));
+    }
+
+    private static long median(long[] values) {
+        long[] sorted = values.clone();
+        Arrays.sort(sorted);
+        return sorted[sorted.length / 2];
+    }
+
+    // Percent above (positive) or below the baseline value.
+    private static double change(double value, Properties baseline, String key) {
+        double old = Double.parseDouble(baseline.getProperty(key, "0"));
+        return old > 0 ? (value - old) / old * 100 : 0;
+    }
+
+    private static String bytes(long bytes) {
+        if (bytes >= 1 << 20) return String.format("%.1f MB", bytes / (double)(1 << 20));
+        if (bytes >= 1 << 10) return String.format("%.1f KB", bytes / (double)(1 << 10));
+        return bytes + " B";
+    }
+
+    // =========================================================================
+    // == THE BASELINE
+    // =========================================================================
+
+    // <name>.cold.ms, <name>.warm.ms and <name>.alloc.bytes for every program.
+    private static Properties load(Path file) throws IOException {
+        if (!Files.exists(file)) return null;
+        Properties baseline = new Properties();
+        try (Reader reader = Files.newBufferedReader(file)) {
+            baseline.load(reader);
+        }
+        return baseline;
+    }
+
+    private static void store(Path file, List<Result> results) throws IOException {
+        Properties baseline = new Properties();
+        for (Result result : results) {
+            baseline.setProperty(result.name + ".cold.ms", String.format(Locale.ROOT, "%.3f", result.coldMillis));
+            baseline.setProperty(result.name + ".warm.ms", String.format(Locale.ROOT, "%.3f", result.warmMillis));
+            baseline.setProperty(result.name + ".alloc.bytes", Long.toString(result.allocatedBytes));
+        }
+        try (Writer writer = Files.newBufferedWriter(file)) {
+            baseline.store(writer, "HyperScript macro-benchmark baseline (HyperScript --bench)");
+        }
+    }
+}
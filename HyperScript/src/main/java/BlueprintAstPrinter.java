@@ -36,7 +36,7 @@ class BlueprintAstPrinter implements BlueprintStmt.Visitor<String> {
         if (stmt.attributes != null && !stmt.attributes.isEmpty()) {
             builder.append("\n  (Attributes");
             for (BlueprintStmt.Field attr : stmt.attributes) {
-                builder.append("\n    (" + attr.type.lexeme + ": " + attr.name.lexeme + ")");
+                builder.append("\n    (" + attr.name.lexeme + ": " + attr.type.lexeme + ")");
             }
             builder.append(" )");
         }
@@ -68,7 +68,7 @@ class BlueprintAstPrinter implements BlueprintStmt.Visitor<String> {
         if (stmt.attributes != null && !stmt.attributes.isEmpty()) {
             builder.append("\n  (Attributes");
             for (BlueprintStmt.Field attr : stmt.attributes) {
-                builder.append("\n    (" + attr.type.lexeme + ": " + attr.name.lexeme + ")");
+                builder.append("\n    (" + attr.name.lexeme + ": " + attr.type.lexeme + ")");
             }
             builder.append(" )");
         }
@@ -91,7 +91,7 @@ class BlueprintAstPrinter implements BlueprintStmt.Visitor<String> {
         builder.append("(component " + stmt.name.lexeme);
         if (stmt.fields != null && !stmt.fields.isEmpty()) {
             for (BlueprintStmt.Field field : stmt.fields) {
-                builder.append("\n  (" + field.type.lexeme + ": " + field.name.lexeme + ")");
+                builder.append("\n  (" + field.name.lexeme + ": " + field.type.lexeme + ")");
             }
         }
         builder.append(" )");
@@ -0,0 +1,113 @@
+// In src/main/java/BlueprintLowering.java
+
+import java.util.ArrayList;
+import java.util.List;
+
+// The lowering stage between the Blueprint AST and the ECS World.
+// It turns each Class into one flat Archetype:
+//
+//   Class Tank {                       Archetype Tank
+//     Attributes { height: int }  -->    height
+//     Fragment Barrel {                  Barrel.length
+//       Attributes { length: int }       Barrel.diameter
+//       ...
+//
+// Fragments are NOT separate objects. Their attributes live in the parent's
+// columns under qualified names, so reading a Tank's barrel never chases a pointer.
+// Attachments become SystemBindings scoped to the columns they own.
+class BlueprintLowering implements BlueprintStmt.Visitor<Void> {
+    // Where type names get resolved. Shared across files, so later Blueprints
+    // (or a whole project indexed up front) can use types from other files.
+    private BlueprintSymbols symbols = new BlueprintSymbols();
+
+    private List<Archetype> lowered;
+
+    void useSymbols(BlueprintSymbols symbols) {
+        this.symbols = symbols;
+    }
+
+    BlueprintSymbols symbols() {
+        return symbols;
+    }
+
+    List<Archetype> lower(List<BlueprintStmt> statements, String file) {
+        lowered = new ArrayList<>();
+        // Make sure this file's own declarations are known, even without a project index.
+        symbols.declare(statements, file);
+        for (BlueprintStmt statement : statements) {
+            if (statement != null) statement.accept(this);
+        }
+        return lowered;
+    }
+
+    // Adds a block of attributes (optionally under a prefix) and returns
+    // the index of the first column it produced.
+    private int addAttributes(Archetype archetype, String prefix, List<BlueprintStmt.Field> attributes) {
+        int first = archetype.columnNames().size();
+        for (BlueprintStmt.Field attribute : attributes) {
+            String name = prefix == null ? attribute.name.lexeme : prefix + "." + attribute.name.lexeme;
+            archetype.addAttribute(name, attribute.type.lexeme, symbols.resolve(attribute.type.lexeme).fields);
+        }
+        return first;
+    }
+    private void addSystems(Archetype archetype, String scope, List<BlueprintStmt.Attachment> attachments,
+                            int firstColumn, int columnCount) {
+        for (BlueprintStmt.Attachment attachment : attachments) {
+            archetype.addSystem(new SystemBinding(attachment.type.lexeme, attachment.path,
+                                                  scope, firstColumn, columnCount));
+        }
+    }
+
+    // =========================================================================
+    // == VISITOR METHODS
+    // =========================================================================
+
+    @Override
+    public Void visitSectorStmt(BlueprintStmt.SectorStmt stmt) {
+        for (BlueprintStmt declaration : stmt.declarations) {
+            if (declaration != null) declaration.accept(this);
+        }
+        return null;
+    }
+
+    @Override
+    public Void visitClassStmt(BlueprintStmt.ClassStmt stmt) {
+        Archetype archetype = new Archetype(stmt.name.lexeme);
+        addAttributes(archetype, null, stmt.attributes);
+
+        // Flatten every Fragment into the parent, remembering its column range.
+        List<int[]> fragmentRanges = new ArrayList<>();
+        for (BlueprintStmt.FragmentStmt fragment : stmt.fragments) {
+            int first = addAttributes(archetype, fragment.name.lexeme, fragment.attributes);
+            fragmentRanges.add(new int[] { first, archetype.columnNames().size() - first });
+        }
+
+        // Class-level Attachments see the whole archetype...
+        addSystems(archetype, null, stmt.attachments, 0, archetype.columnNames().size());
+        // ...while Fragment-level ones only see their own sub-range.
+        for (int i = 0; i < stmt.fragments.size(); i++) {
+            BlueprintStmt.FragmentStmt fragment = stmt.fragments.get(i);
+            int[] range = fragmentRanges.get(i);
+            addSystems(archetype, fragment.name.lexeme, fragment.attachments, range[0], range[1]);
+        }
+
+        lowered.add(archetype);
+        return null;
+    }
+
+    @Override
+    public Void visitFragmentStmt(BlueprintStmt.FragmentStmt stmt) {
+        // Fragments are flattened by visitClassStmt; on their own they lower to nothing.
+        return null;
+    }
+
+    @Override
+    public Void visitComponentStmt(BlueprintStmt.ComponentStmt stmt) {
+        return null; // Components are resolved through the symbol table when a Class uses them.
+    }
+
+    @Override
+    public Void visitRoleStmt(BlueprintStmt.RoleStmt stmt) {
+        return null; // Same for roles.
+    }
+}
@@ -85,9 +85,15 @@ class BlueprintParser {
             // Now, check for our special blocks.
             if (match(TokenType.CRUNCH)) {
                 consume(TokenType.LEFT_PAREN, "Expect '(' after 'crunch'.");
-                // Consume everything until we find the closing parenthesis.
-                while (!check(TokenType.RIGHT_PAREN) && !isAtEnd()) {
-                    advance(); // Just eat the tokens for now.
+                // A crunch block is a packed list of fields, e.g. crunch(x: int, y: int).
+                // They become real fields so the component has a column layout.
+                if (!check(TokenType.RIGHT_PAREN)) {
+                    do {
+                        Token fieldName = consume(TokenType.IDENTIFIER, "Expect field name in crunch block.");
+                        consume(TokenType.COLON, "Expect ':' after field name.");
+                        Token type = consume(TokenType.IDENTIFIER, "Expect type name for field.");
+                        fields.add(new BlueprintStmt.Field(type, fieldName));
+                    } while (match(TokenType.COMMA));
                 }
                 consume(TokenType.RIGHT_PAREN, "Expect ')' after crunch block.");
                 continue; // Go to the next item in the component body.
@@ -104,9 +110,10 @@ class BlueprintParser {
             }
     
             // If it's not a special block, it MUST be a field declaration.
-            Token type = consume(TokenType.IDENTIFIER, "Expect type name for field.");
-            consume(TokenType.COLON, "Expect ':' after type name.");
+            // Fields are written 'name: type', e.g. 'value: double'.
             Token fieldName = consume(TokenType.IDENTIFIER, "Expect field name.");
+            consume(TokenType.COLON, "Expect ':' after field name.");
+            Token type = consume(TokenType.IDENTIFIER, "Expect type name for field.");
             fields.add(new BlueprintStmt.Field(type, fieldName));
     
             // Fields can be separated by commas or newlines.
@@ -174,9 +181,10 @@ class BlueprintParser {
         if (!check(TokenType.RIGHT_BRACE)) {
             do {
                 if (check(TokenType.RIGHT_BRACE)) break;
-                Token type = consume(TokenType.IDENTIFIER, "Expect a type name.");
-                consume(TokenType.COLON, "Expect ':' after type.");
+                // Attributes are written 'name: type', e.g. 'weight: mass'.
                 Token name = consume(TokenType.IDENTIFIER, "Expect attribute instance name.");
+                consume(TokenType.COLON, "Expect ':' after attribute name.");
+                Token type = consume(TokenType.IDENTIFIER, "Expect a type name.");
                 attributes.add(new BlueprintStmt.Field(type, name));
                 
             } while (match(TokenType.COMMA) || match(TokenType.EOL));
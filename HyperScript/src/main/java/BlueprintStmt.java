@@ -27,7 +27,7 @@ abstract class BlueprintStmt {
     // == HELPER / SUB-NODE CLASSES
     // =========================================================================
 
-    /** Represents a single field declaration, like 'health: int' or 'Position: transform'. */
+    /** Represents a single field declaration, like 'health: int' or 'position: transform'. */
     static class Field {
         final Token type;
         final Token name;
@@ -0,0 +1,234 @@
+// In src/main/java/BlueprintSymbols.java
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+// The project-wide symbol table for Blueprints.
+//
+// Every component, role and Class from every .hbp file is declared here, so
+// 'speed: velocity2' in Tank.hbp finds 'role velocity2 is vector2' in Physics.hbp.
+// Type names are resolved ONCE into a Layout (the flat list of primitive columns
+// a type occupies) and cached, so lowering never walks a role chain twice.
+class BlueprintSymbols {
+    // Built-in types. Each one is a single column.
+    static final Set<String> PRIMITIVES = Set.of("int", "long", "float", "double", "bool", "char", "string");
+
+    /** Where a name was declared. */
+    static class Symbol {
+        final String name;
+        final Token token;          // The declaring name token, for error messages
+        final String file;
+        final BlueprintStmt declaration;
+
+        Symbol(String name, Token token, String file, BlueprintStmt declaration) {
+            this.name = name;
+            this.token = token;
+            this.file = file;
+            this.declaration = declaration;
+        }
+    }
+
+    /** The resolved shape of a type: which primitive columns it flattens into. */
+    static class Layout {
+        final String type;
+        final List<String> fields; // Column suffixes, e.g. [x, y]. Empty for a single column.
+
+        Layout(String type, List<String> fields) {
+            this.type = type;
+            this.fields = Collections.unmodifiableList(fields);
+        }
+    }
+
+    private final Map<String, Symbol> symbols = new ConcurrentHashMap<>();
+    private final Map<String, Layout> layouts = new ConcurrentHashMap<>();
+
+    // =========================================================================
+    // == BUILDING
+    // =========================================================================
+
+    // Declares every parsed Blueprint of a project, in parallel.
+    static BlueprintSymbols of(Map<Path, List<BlueprintStmt>> blueprints) {
+        BlueprintSymbols symbols = new BlueprintSymbols();
+        Context context = Context.current(); // Duplicate names are reported to the caller's Context
+        blueprints.entrySet().parallelStream().forEach(entry -> context.runIn(() ->
+            symbols.declare(entry.getValue(), entry.getKey().getFileName().toString())));
+        return symbols;
+    }
+
+    // Adds every top-level (and Sector-level) declaration in one file.
+    void declare(List<BlueprintStmt> statements, String file) {
+        Declarer declarer = new Declarer(file);
+        for (BlueprintStmt statement : statements) {
+            if (statement != null) statement.accept(declarer);
+        }
+    }
+
+    // Replaces everything a file declared, e.g. after it was edited.
+    // Cached layouts may depend on the old declarations, so they all go.
+    void redeclare(List<BlueprintStmt> statements, String file) {
+        symbols.values().removeIf(symbol -> symbol.file.equals(file));
+        layouts.clear();
+        declare(statements, file);
+    }
+
+    private void declare(String name, Token token, String file, BlueprintStmt declaration) {
+        Symbol symbol = new Symbol(name, token, file, declaration);
+        Symbol existing = symbols.putIfAbsent(name, symbol);
+        // Re-declaring from the same file is fine (the file was just loaded twice).
+        if (existing != null && !existing.file.equals(file)) {
+            HyperScript.error(token, "'" + name + "' is already declared in " + existing.file + ".");
+        }
+    }
+
+    private class Declarer implements BlueprintStmt.Visitor<Void> {
+        private final String file;
+
+        Declarer(String file) {
+            this.file = file;
+        }
+
+        @Override
+        public Void visitSectorStmt(BlueprintStmt.SectorStmt stmt) {
+            for (BlueprintStmt declaration : stmt.declarations) {
+                if (declaration != null) declaration.accept(this);
+            }
+            return null;
+        }
+
+        @Override
+        public Void visitClassStmt(BlueprintStmt.ClassStmt stmt) {
+            declare(stmt.name.lexeme, stmt.name, file, stmt);
+            return null;
+        }
+
+        @Override
+        public Void visitFragmentStmt(BlueprintStmt.FragmentStmt stmt) {
+            return null; // Fragments are scoped to their Class, not global names.
+        }
+
+        @Override
+        public Void visitComponentStmt(BlueprintStmt.ComponentStmt stmt) {
+            declare(stmt.name.lexeme, stmt.name, file, stmt);
+            return null;
+        }
+
+        @Override
+        public Void visitRoleStmt(BlueprintStmt.RoleStmt stmt) {
+            declare(stmt.name.lexeme, stmt.name, file, stmt);
+            return null;
+        }
+    }
+
+    // =========================================================================
+    // == RESOLUTION
+    // =========================================================================
+
+    // Resolves a type name to its Layout. Unknown names (and cycles) resolve to a
+    // single column; analyze() is what reports them as errors.
+    Layout resolve(String type) {
+        Layout cached = layouts.get(type);
+        if (cached != null) return cached;
+        try {
+            return resolve(type, new HashSet<>());
+        } catch (CycleError error) {
+            return singleColumn(type);
+        }
+    }
+
+    private static class CycleError extends RuntimeException {
+        final List<String> path = new ArrayList<>();
+        CycleError() { super(null, null, false, false); }
+    }
+
+    private Layout resolve(String type, Set<String> inProgress) {
+        Layout cached = layouts.get(type);
+        if (cached != null) return cached;
+        if (!inProgress.add(type)) {
+            CycleError error = new CycleError();
+            error.path.add(type);
+            throw error;
+        }
+
+        Layout layout;
+        Symbol symbol = symbols.get(type);
+        try {
+            if (symbol == null || symbol.declaration instanceof BlueprintStmt.ClassStmt) {
+                // A primitive, or a reference to another entity. Either way one column.
+                layout = singleColumn(type);
+            } else if (symbol.declaration instanceof BlueprintStmt.RoleStmt) {
+                Layout underlying = resolve(((BlueprintStmt.RoleStmt)symbol.declaration).underlyingType.lexeme, inProgress);
+                layout = new Layout(type, underlying.fields);
+            } else {
+                // A component: flatten every field, nesting with dots (pos.x, pos.y).
+                List<String> fields = new ArrayList<>();
+                for (BlueprintStmt.Field field : ((BlueprintStmt.ComponentStmt)symbol.declaration).fields) {
+                    Layout inner = resolve(field.type.lexeme, inProgress);
+                    if (inner.fields.isEmpty()) {
+                        fields.add(field.name.lexeme);
+                    } else {
+                        for (String innerField : inner.fields) fields.add(field.name.lexeme + "." + innerField);
+                    }
+                }
+                layout = new Layout(type, fields);
+            }
+        } catch (CycleError error) {
+            error.path.add(0, type);
+            throw error;
+        } finally {
+            inProgress.remove(type);
+        }
+
+        // Don't cache a guess: the name may still be declared by a file loaded later.
+        if (symbol == null && !PRIMITIVES.contains(type)) return layout;
+
+        Layout existing = layouts.putIfAbsent(type, layout);
+        return existing != null ? existing : layout;
+    }
+
+    private static Layout singleColumn(String type) {
+        return new Layout(type, Collections.emptyList());
+    }
+
+    // =========================================================================
+    // == SEMANTIC ANALYSIS
+    // =========================================================================
+
+    // Checks every declaration in the project. Errors go through HyperScript.error.
+    void analyze() {
+        for (Symbol symbol : symbols.values()) {
+            if (symbol.declaration instanceof BlueprintStmt.RoleStmt) {
+                checkType(symbol.file, ((BlueprintStmt.RoleStmt)symbol.declaration).underlyingType);
+            } else if (symbol.declaration instanceof BlueprintStmt.ComponentStmt) {
+                for (BlueprintStmt.Field field : ((BlueprintStmt.ComponentStmt)symbol.declaration).fields) {
+                    checkType(symbol.file, field.type);
+                }
+            } else if (symbol.declaration instanceof BlueprintStmt.ClassStmt) {
+                BlueprintStmt.ClassStmt stmt = (BlueprintStmt.ClassStmt)symbol.declaration;
+                for (BlueprintStmt.Field attribute : stmt.attributes) checkType(symbol.file, attribute.type);
+                for (BlueprintStmt.FragmentStmt fragment : stmt.fragments) {
+                    for (BlueprintStmt.Field attribute : fragment.attributes) checkType(symbol.file, attribute.type);
+                }
+            }
+        }
+    }
+
+    private void checkType(String file, Token type) {
+        if (!PRIMITIVES.contains(type.lexeme) && !symbols.containsKey(type.lexeme)) {
+            HyperScript.error(type, "Unknown type '" + type.lexeme + "' in " + file + ".");
+            return;
+        }
+        if (layouts.containsKey(type.lexeme)) return;
+        try {
+            resolve(type.lexeme, new HashSet<>());
+        } catch (CycleError error) {
+            HyperScript.error(type, "Type '" + type.lexeme + "' in " + file + " refers to itself: " +
+                String.join(" -> ", error.path) + ".");
+        }
+    }
+}
@@ -0,0 +1,433 @@
+// In src/main/java/BuildGraph.java
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+// The project as a graph of files, rebuilt incrementally.
+//
+//   main.core --STARTING_POINT--> Simulation.hfl
+//   Tank.hbp  --Attachments-----> Physics.hfl, Controls.hfl, ...
+//
+// Every file's mtime, size and content hash is kept in a persistent index
+// (project/.hyperscript/build.index). A build only reads files whose mtime or
+// size moved, only re-parses files whose hash changed, and then re-processes
+// whatever depends on them. The project's directories are only walked again
+// when one of their mtimes changes, so a no-op build is a handful of stat calls.
+//
+// Parsed programs live in memory only. A fresh process (a plain run) still
+// parses every file it needs, and the index just spares it the hashing; the
+// parses saved are those of a long-lived graph, rebuilt again and again
+// (WatchMode).
+class BuildGraph {
+    static final String INDEX_DIR = ".hyperscript";
+    static final String INDEX_FILE = "build.index";
+    private static final String INDEX_HEADER = "# HyperScript build index v2";
+
+    static class Node {
+        final Path file;
+        long mtime = -1;
+        long size = -1;
+        long hash = 0;
+        Set<Path> dependsOn = new LinkedHashSet<>();
+
+        // Filled in when the file is parsed in this process.
+        volatile List<Stmt> flow;
+        volatile List<BlueprintStmt> blueprint;
+        private byte[] pending; // Content read while hashing, kept so we don't read twice
+
+        Node(Path file) {
+            this.file = file;
+        }
+
+        boolean isBlueprint() {
+            return file.toString().endsWith(".hbp");
+        }
+
+        boolean isFlow() {
+            return file.toString().endsWith(".hfl");
+        }
+    }
+
+    /** What a build did. */
+    static class Result {
+        final int checked;
+        final List<Path> changed;
+        final List<Path> rebuilt;
+        final long nanos;
+
+        Result(int checked, List<Path> changed, List<Path> rebuilt, long nanos) {
+            this.checked = checked;
+            this.changed = changed;
+            this.rebuilt = rebuilt;
+            this.nanos = nanos;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("Build: %d files checked, %d changed, %d rebuilt in %.2f ms",
+                checked, changed.size(), rebuilt.size(), nanos / 1e6);
+        }
+    }
+
+    private final Path projectDir;
+    private final Path indexFile;
+    private final Map<Path, Node> nodes = new LinkedHashMap<>();
+
+    // Directory listing, only refreshed when one of the directories' mtimes
+    // changes. Every directory counts, as adding a file to a subdirectory
+    // doesn't touch its parent.
+    private Map<Path, Long> dirMtimes = new LinkedHashMap<>();
+    private Path coreFile;
+    private List<Path> blueprintFiles = new ArrayList<>();
+    private Path entryPoint;
+    private volatile boolean indexDirty = true; // Nothing on disk yet
+
+    // Parsing runs on pool threads; syntax errors still belong to whoever built us.
+    private final Context context = Context.current();
+
+    BuildGraph(Path projectDir) throws IOException {
+        this.projectDir = projectDir.toAbsolutePath().normalize();
+        this.indexFile = this.projectDir.resolve(INDEX_DIR).resolve(INDEX_FILE);
+        loadIndex();
+    }
+
+    // =========================================================================
+    // == BUILDING
+    // =========================================================================
+
+    Result build() throws IOException {
+        long start = System.nanoTime();
+
+        // --- STEP 1: Only walk the project if something was added or removed. ---
+        if (coreFile == null || directoriesMoved()) {
+            coreFile = CoreConfig.find(projectDir);
+            Map<Path, Long> directories = new LinkedHashMap<>();
+            List<Path> blueprints = new ArrayList<>();
+            try (Stream<Path> stream = Files.walk(projectDir)) {
+                stream.filter(path -> !path.startsWith(indexFile.getParent())).forEach(path -> {
+                    try {
+                        if (Files.isDirectory(path)) {
+                            directories.put(path, Files.getLastModifiedTime(path).toMillis());
+                        } else if (path.toString().endsWith(".hbp")) {
+                            blueprints.add(path);
+                        }
+                    } catch (IOException error) {
+                        throw new UncheckedIOException(error);
+                    }
+                });
+            }
+            Collections.sort(blueprints);
+            blueprintFiles = blueprints;
+            dirMtimes = directories;
+            indexDirty = true;
+        }
+
+        // --- STEP 2: Walk the graph from the roots, hashing what looks touched. ---
+        Set<Path> changed = new LinkedHashSet<>();
+        Set<Path> reachable = new LinkedHashSet<>();
+        Deque<Path> work = new ArrayDeque<>();
+        work.add(coreFile);
+        work.addAll(blueprintFiles);
+
+        while (!work.isEmpty()) {
+            // Check everything we know about so far in parallel...
+            List<Path> batch = new ArrayList<>();
+            while (!work.isEmpty()) {
+                Path file = work.poll();
+                if (reachable.add(file)) batch.add(file);
+            }
+            List<Node> batchNodes = batch.stream()
+                .map(file -> nodes.computeIfAbsent(file, Node::new))
+                .collect(Collectors.toList());
+            Set<Path> batchChanged = batchNodes.parallelStream()
+                .filter(this::refresh)
+                .map(node -> node.file)
+                .collect(Collectors.toSet());
+            changed.addAll(batchChanged);
+
+            // ...then parse the changed ones in parallel, which may reveal new edges.
+            batchNodes.parallelStream()
+                .filter(node -> batchChanged.contains(node.file))
+                .forEach(this::process);
+
+            for (Node node : batchNodes) {
+                if (node.file.equals(coreFile)) {
+                    Path entry = readEntryPoint();
+                    if (entry != null) work.add(entry);
+                }
+                for (Path dependency : node.dependsOn) {
+                    // Missing attachments are the AttachmentLoader's job to report.
+                    if (Files.isRegularFile(dependency)) work.add(dependency);
+                }
+            }
+        }
+
+        // Forget files that are no longer part of the project.
+        if (nodes.keySet().retainAll(reachable)) indexDirty = true;
+
+        // --- STEP 3: Everything that depends on a changed file is rebuilt too. ---
+        Set<Path> rebuilt = dependentsOf(changed);
+        for (Path file : rebuilt) {
+            if (!changed.contains(file)) process(nodes.get(file));
+        }
+
+        if (indexDirty || !changed.isEmpty()) saveIndex();
+        return new Result(reachable.size(), new ArrayList<>(changed), new ArrayList<>(rebuilt), System.nanoTime() - start);
+    }
+
+    // True if any directory we listed was changed or removed since.
+    private boolean directoriesMoved() throws IOException {
+        if (dirMtimes.isEmpty()) return true;
+        for (Map.Entry<Path, Long> directory : dirMtimes.entrySet()) {
+            if (!Files.isDirectory(directory.getKey())) return true;
+            if (Files.getLastModifiedTime(directory.getKey()).toMillis() != directory.getValue()) return true;
+        }
+        return false;
+    }
+
+    // Stats a file; reads and hashes it only if mtime or size moved.
+    // Returns true if the content is different from what the index remembers.
+    private boolean refresh(Node node) {
+        try {
+            long mtime = Files.getLastModifiedTime(node.file).toMillis();
+            long size = Files.size(node.file);
+            if (mtime == node.mtime && size == node.size) return false;
+
+            byte[] bytes = Files.readAllBytes(node.file);
+            long hash = hash(bytes);
+            boolean contentChanged = hash != node.hash || node.mtime < 0;
+            node.mtime = mtime;
+            node.size = size;
+            node.hash = hash;
+            if (contentChanged) node.pending = bytes;
+            else indexDirty = true; // Only touched; remember the new mtime so we don't hash it again.
+            return contentChanged;
+        } catch (IOException error) {
+            throw new UncheckedIOException(error);
+        }
+    }
+
+    private static long hash(byte[] bytes) {
+        CRC32C crc = new CRC32C();
+        crc.update(bytes);
+        return (crc.getValue() << 32) ^ bytes.length;
+    }
+
+    // Scans and parses one file, and recomputes its outgoing edges.
+    private void process(Node node) {
+        context.runIn(() -> parse(node));
+    }
+
+    private void parse(Node node) {
+        byte[] bytes = node.pending;
+        node.pending = null;
+        try {
+            if (bytes == null) bytes = Files.readAllBytes(node.file);
+        } catch (IOException error) {
+            throw new UncheckedIOException(error);
+        }
+        String source = new String(bytes, Charset.defaultCharset());
+
+        if (node.isFlow()) {
+            String name = node.file.getFileName().toString();
+            node.flow = List.copyOf(PipelineEvents.parseFlow(PipelineEvents.scan(source, name), name));
+        } else if (node.isBlueprint()) {
+            String name = node.file.getFileName().toString();
+            List<BlueprintStmt> statements = PipelineEvents.parseBlueprint(PipelineEvents.scan(source, name), name);
+            node.blueprint = Collections.unmodifiableList(statements);
+            Set<Path> dependsOn = new LinkedHashSet<>();
+            collectAttachments(statements, dependsOn);
+            node.dependsOn = dependsOn;
+        }
+    }
+
+    private void collectAttachments(List<BlueprintStmt> statements, Set<Path> out) {
+        for (BlueprintStmt statement : statements) {
+            if (statement instanceof BlueprintStmt.SectorStmt) {
+                collectAttachments(((BlueprintStmt.SectorStmt)statement).declarations, out);
+            } else if (statement instanceof BlueprintStmt.ClassStmt) {
+                BlueprintStmt.ClassStmt stmt = (BlueprintStmt.ClassStmt)statement;
+                addAttachments(stmt.attachments, out);
+                for (BlueprintStmt.FragmentStmt fragment : stmt.fragments) {
+                    addAttachments(fragment.attachments, out);
+                }
+            }
+        }
+    }
+
+    private void addAttachments(List<BlueprintStmt.Attachment> attachments, Set<Path> out) {
+        for (BlueprintStmt.Attachment attachment : attachments) {
+            out.add(projectDir.resolve(attachment.path.lexeme).normalize());
+        }
+    }
+
+    // The changed files plus everything that (transitively) depends on them.
+    private Set<Path> dependentsOf(Set<Path> changed) {
+        Set<Path> result = new LinkedHashSet<>(changed);
+        boolean grew = true;
+        while (grew) {
+            grew = false;
+            for (Node node : nodes.values()) {
+                if (result.contains(node.file)) continue;
+                for (Path dependency : node.dependsOn) {
+                    if (result.contains(dependency)) {
+                        result.add(node.file);
+                        grew = true;
+                        break;
+                    }
+                }
+            }
+        }
+        return result;
+    }
+
+    private Path readEntryPoint() {
+        try {
+            Token start = CoreConfig.parse(coreFile).get(CoreConfig.STARTING_POINT);
+            if (start == null) {
+                throw new IOException(coreFile.getFileName() + " has no " + CoreConfig.STARTING_POINT + ".");
+            }
+            entryPoint = projectDir.resolve(start.lexeme).normalize();
+            if (!Files.isRegularFile(entryPoint)) {
+                throw new IOException("Entry point file not found: " + start.lexeme);
+            }
+            return entryPoint;
+        } catch (IOException error) {
+            throw new UncheckedIOException(error);
+        }
+    }
+
+    // =========================================================================
+    // == RESULTS
+    // =========================================================================
+
+    Path projectDir() {
+        return projectDir;
+    }
+
+    Path entryPoint() {
+        if (entryPoint == null) readEntryPoint();
+        return entryPoint;
+    }
+
+    List<Path> blueprintFiles() {
+        return Collections.unmodifiableList(blueprintFiles);
+    }
+
+    // Parsed programs. Files that were unchanged since the last run haven't been
+    // parsed in this process yet; those are parsed here, in parallel, on demand.
+    Map<Path, List<BlueprintStmt>> blueprints() {
+        Map<Path, List<BlueprintStmt>> result = new LinkedHashMap<>();
+        ensureParsed(blueprintFiles);
+        for (Path file : blueprintFiles) result.put(file, nodes.get(file).blueprint);
+        return result;
+    }
+
+    Map<Path, List<Stmt>> flowPrograms() {
+        List<Path> flows = nodes.values().stream().filter(Node::isFlow).map(node -> node.file).collect(Collectors.toList());
+        ensureParsed(flows);
+        Map<Path, List<Stmt>> result = new LinkedHashMap<>();
+        for (Path file : flows) result.put(file, nodes.get(file).flow);
+        return result;
+    }
+
+    List<Stmt> flowProgram(Path file) {
+        ensureParsed(Collections.singletonList(file));
+        return nodes.get(file).flow;
+    }
+
+    private void ensureParsed(List<Path> files) {
+        files.parallelStream()
+            .map(nodes::get)
+            .filter(node -> node != null && node.flow == null && node.blueprint == null)
+            .forEach(this::process);
+    }
+
+    // =========================================================================
+    // == THE PERSISTENT INDEX
+    // =========================================================================
+    //
+    //   # HyperScript build index v2
+    //   dir   <path> <mtime>
+    //   core  <path>
+    //   hbp   <path>
+    //   file  <path> <mtime> <size> <hash> <dependency>...
+    //
+    // Paths are relative to the project, fields are tab-separated.
+
+    private void loadIndex() throws IOException {
+        if (!Files.exists(indexFile)) return;
+        List<String> lines = Files.readAllLines(indexFile);
+        if (lines.isEmpty() || !lines.get(0).equals(INDEX_HEADER)) return; // Unknown format: rebuild everything.
+        indexDirty = false;
+
+        for (String line : lines.subList(1, lines.size())) {
+            String[] fields = line.split("\t");
+            switch (fields[0]) {
+                case "dir":  dirMtimes.put(projectDir.resolve(fields[1]).normalize(), Long.parseLong(fields[2])); break;
+                case "core": coreFile = projectDir.resolve(fields[1]); break;
+                case "hbp":  blueprintFiles.add(projectDir.resolve(fields[1])); break;
+                case "file": {
+                    Node node = new Node(projectDir.resolve(fields[1]));
+                    node.mtime = Long.parseLong(fields[2]);
+                    node.size = Long.parseLong(fields[3]);
+                    node.hash = Long.parseUnsignedLong(fields[4], 16);
+                    for (int i = 5; i < fields.length; i++) node.dependsOn.add(projectDir.resolve(fields[i]));
+                    nodes.put(node.file, node);
+                    break;
+                }
+                default: break;
+            }
+        }
+    }
+
+    private void saveIndex() throws IOException {
+        if (!Files.isDirectory(indexFile.getParent())) {
+            Files.createDirectories(indexFile.getParent());
+            // Creating .hyperscript touched our own directory; that isn't a project change.
+            if (dirMtimes.containsKey(projectDir)) {
+                dirMtimes.put(projectDir, Files.getLastModifiedTime(projectDir).toMillis());
+            }
+        }
+
+        List<String> lines = new ArrayList<>();
+        lines.add(INDEX_HEADER);
+        for (Map.Entry<Path, Long> directory : dirMtimes.entrySet()) {
+            lines.add("dir\t" + relative(directory.getKey()) + "\t" + directory.getValue());
+        }
+        lines.add("core\t" + relative(coreFile));
+        for (Path file : blueprintFiles) lines.add("hbp\t" + relative(file));
+        for (Node node : nodes.values()) {
+            StringBuilder line = new StringBuilder("file\t" + relative(node.file) + "\t" + node.mtime +
+                "\t" + node.size + "\t" + Long.toHexString(node.hash));
+            for (Path dependency : node.dependsOn) line.append('\t').append(relative(dependency));
+            lines.add(line.toString());
+        }
+
+        // Write to a temp file and move it over, so a crash never leaves half an index.
+        Path temp = indexFile.resolveSibling(INDEX_FILE + ".tmp");
+        Files.write(temp, lines);
+        Files.move(temp, indexFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        indexDirty = false;
+    }
+
+    private String relative(Path file) {
+        return projectDir.relativize(file).toString();
+    }
+}
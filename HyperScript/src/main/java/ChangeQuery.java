@@ -0,0 +1,51 @@
+// In src/main/java/ChangeQuery.java
+
+import java.util.List;
+
+// "Which entities changed since I last looked?"
+//
+// A ChangeQuery watches one attribute of one archetype. Each run returns the
+// entities in every chunk where that attribute was written since the previous
+// run, so a system like rendering sync only touches what moved.
+//
+// It works at CHUNK granularity (Archetype.CHUNK_SIZE rows): an untouched entity
+// that shares a chunk with a changed one is reported too. Systems should treat
+// the result as "maybe changed", never as "definitely changed".
+class ChangeQuery {
+    final Archetype archetype;
+    final Archetype.Attribute attribute;
+    private long lastRunTick = 0; // 0 means never ran, so the first run sees everything
+
+    ChangeQuery(Archetype archetype, Archetype.Attribute attribute) {
+        this.archetype = archetype;
+        this.attribute = attribute;
+    }
+
+    // Adds the possibly-changed entities to 'out' and returns how many it added.
+    int run(List<Object> out) {
+        int added = 0;
+        int size = archetype.size();
+        int chunks = archetype.chunkCount();
+        for (int chunk = 0; chunk < chunks; chunk++) {
+            if (!archetype.chunkChanged(chunk, attribute.offset, attribute.width, lastRunTick)) continue;
+
+            int from = chunk << Archetype.CHUNK_SHIFT;
+            int to = Math.min(size, from + Archetype.CHUNK_SIZE);
+            for (int row = from; row < to; row++) {
+                out.add(new Entity(archetype, row));
+            }
+            added += to - from;
+        }
+
+        // Anything written from now on gets a newer tick than the one we saw.
+        Archetype.Clock clock = archetype.clock();
+        lastRunTick = clock.tick;
+        clock.tick++;
+        return added;
+    }
+
+    @Override
+    public String toString() {
+        return "<query " + archetype.name + "." + attribute.name + ">";
+    }
+}
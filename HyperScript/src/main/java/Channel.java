@@ -0,0 +1,194 @@
+// In src/main/java/Channel.java
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.List;
+import java.util.concurrent.locks.LockSupport;
+
+// A bounded, lock-free queue for passing values between scripts that run at
+// the same time, each in its own Context (see ScriptScheduler and
+// ChannelRegistry):
+//
+//   Channel events = context.channels.named("events", 1024, false);  // what channel("events", 1024) does
+//   events.offer(value);               // false if full
+//   events.drain(into, 64);            // up to 64 at once, for the single consumer
+//
+// Two ring buffers share this API:
+//   - MpscChannel: any number of senders, ONE receiver. Senders claim a slot
+//     with a CAS; the receiver never writes anything senders write.
+//   - SpscChannel: ONE sender and ONE receiver. No CAS at all.
+// Neither takes a lock, so a sender never waits for a receiver that got
+// descheduled halfway through, and drain() pays for one index update per
+// batch instead of one per value.
+//
+// BLOCKING. Both sides spin, then yield, and only then park. take() parks the
+// receiver until something arrives; senders wake it after they publish. put()
+// waits for room by parking with a growing backoff: a full channel is back-
+// pressure, and keeping receivers off the hot path matters more than waking
+// senders the instant a slot frees up. On virtual threads parking is cheap,
+// since it just unmounts the thread.
+//
+// WHO. Nothing here checks that there's one receiver (or, for SpscChannel, one
+// sender); a second one would race on plain index writes and lose or repeat
+// values. ChannelNatives checks, with claimReceiver/claimSender, before every
+// call a script makes: the first Context to receive owns the receiving end for
+// good, and likewise the sending end of an SpscChannel.
+//
+// Nulls can't go in (null marks an empty slot); ChannelNatives wraps Flow's.
+abstract class Channel {
+    // Before parking, spin a little (the other side may be mid-batch on another
+    // core), then yield (it may be waiting for ours), and only then park.
+    private static final int SPINS = 16;
+    private static final int YIELDS = 64;
+    private static final long MIN_BACKOFF_NANOS = 10_000;
+    private static final long MAX_BACKOFF_NANOS = 1_000_000;
+
+    // The producer and consumer indices live in one long[], 128 bytes apart,
+    // so the two sides never write to the same cache line (or its neighbour,
+    // which some CPUs prefetch along with it).
+    static final int PAD = 16;
+    static final VarHandle INDEX = MethodHandles.arrayElementVarHandle(long[].class);
+    static final VarHandle ELEMENT = MethodHandles.arrayElementVarHandle(Object[].class);
+    private static final VarHandle RECEIVER;
+    private static final VarHandle SENDER;
+
+    static {
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.lookup();
+            RECEIVER = lookup.findVarHandle(Channel.class, "receiver", Object.class);
+            SENDER = lookup.findVarHandle(Channel.class, "sender", Object.class);
+        } catch (ReflectiveOperationException error) {
+            throw new ExceptionInInitializerError(error);
+        }
+    }
+
+    final String name;
+    final int capacity;  // A power of two
+    final int mask;
+    final Object[] buffer;
+
+    // The receiver, while it's parked in take().
+    private volatile Thread consumer;
+
+    // Who owns each end (see claimReceiver), or null until someone uses it.
+    private volatile Object receiver;
+    private volatile Object sender;
+
+    Channel(String name, int capacity) {
+        this.name = name;
+        this.capacity = roundCapacity(capacity);
+        this.mask = this.capacity - 1;
+        this.buffer = new Object[this.capacity];
+    }
+
+    // The capacity a channel asked for 'capacity' really gets: the next power of
+    // two, so 'index & mask' can stand in for 'index % capacity'.
+    static int roundCapacity(int capacity) {
+        if (capacity < 1 || capacity > (1 << 30)) {
+            throw new IllegalArgumentException("Channel capacity must be between 1 and 2^30: " + capacity);
+        }
+        int rounded = 1;
+        while (rounded < capacity) rounded <<= 1;
+        return rounded;
+    }
+
+    // =========================================================================
+    // == THE RING BUFFER (per implementation)
+    // =========================================================================
+
+    // Adds a value if there's room. Never blocks.
+    abstract boolean offer(Object value);
+
+    // Takes the oldest value, or returns null if there's none. Receiver only.
+    abstract Object poll();
+
+    // Moves up to 'limit' values into 'into', oldest first, and returns how many.
+    // Receiver only.
+    abstract int drain(List<Object> into, int limit);
+
+    // How many values are waiting. Only a snapshot while senders are busy.
+    abstract int size();
+
+    abstract String kind();
+
+    // =========================================================================
+    // == OWNERS
+    // =========================================================================
+
+    // True if 'owner' may receive: it's the first to ask, or it asked before.
+    final boolean claimReceiver(Object owner) {
+        return claim(RECEIVER, owner);
+    }
+
+    // True if 'owner' may send. Anyone may, unless the channel is single-sender.
+    boolean claimSender(Object owner) {
+        return true;
+    }
+
+    final boolean claimSingleSender(Object owner) {
+        return claim(SENDER, owner);
+    }
+
+    private boolean claim(VarHandle end, Object owner) {
+        Object holder = end.getAcquire(this);
+        if (holder == null) {
+            holder = end.compareAndExchange(this, null, owner);
+            if (holder == null) return true; // Ours now
+        }
+        return holder == owner;
+    }
+
+    // =========================================================================
+    // == BLOCKING
+    // =========================================================================
+
+    void put(Object value) throws InterruptedException {
+        long backoff = MIN_BACKOFF_NANOS;
+        for (int tries = 0; !offer(value); tries++) {
+            if (tries < SPINS) {
+                Thread.onSpinWait();
+            } else if (tries < SPINS + YIELDS) {
+                Thread.yield();
+            } else {
+                LockSupport.parkNanos(this, backoff);
+                backoff = Math.min(backoff * 2, MAX_BACKOFF_NANOS);
+            }
+            if (Thread.interrupted()) throw new InterruptedException();
+        }
+    }
+
+    Object take() throws InterruptedException {
+        Object value = poll();
+        for (int tries = 0; value == null && tries < SPINS + YIELDS; tries++) {
+            if (tries < SPINS) Thread.onSpinWait();
+            else Thread.yield();
+            value = poll();
+        }
+        if (value != null) return value;
+        consumer = Thread.currentThread();
+        // Either a sender sees us in 'consumer' after publishing, or we see
+        // its value below. The fence keeps our write and that read in order.
+        VarHandle.fullFence();
+        try {
+            while ((value = poll()) == null) {
+                LockSupport.park(this);
+                if (Thread.interrupted()) throw new InterruptedException();
+            }
+            return value;
+        } finally {
+            consumer = null;
+        }
+    }
+
+    // Senders call this after publishing, behind a full fence (a CAS or
+    // fullFence()), which pairs with the one in take().
+    final void wakeConsumer() {
+        Thread waiting = consumer;
+        if (waiting != null) LockSupport.unpark(waiting);
+    }
+
+    @Override
+    public String toString() {
+        return "<channel " + name + ">";
+    }
+}
@@ -0,0 +1,149 @@
+// In src/main/java/ChannelNatives.java
+
+import java.util.ArrayList;
+import java.util.List;
+
+// The Flow-side API for Channels: how concurrently running scripts talk.
+//
+//   let hits = channel("hits", 1024)       // same name, same channel, in every Context sharing a ChannelRegistry
+//   send(hits, 25)                         // waits while it's full
+//   trySend(hits, 25)                      // false instead of waiting
+//   let damage = receive(hits)             // waits while it's empty
+//   let batch = drain(hits, 64)            // up to 64, as a list; maybe none
+//   print pending(hits)
+//   closeChannel("hits")                   // frees the name; 'hits' itself still works
+//
+// 'channel' has any number of senders and one receiver; 'spscChannel' is
+// faster, but for exactly one sender and one receiver. The first script to
+// receive from a channel (or send on an spscChannel) is that one, for good:
+// any other that tries gets an error. A script's coroutines count as the
+// script, since they take turns.
+//
+// Only numbers, strings, booleans and null can be sent. They're immutable, so
+// both sides can hold one safely; an entity or a function belongs to the
+// sender's Interpreter and World, and must not leak into another.
+//
+// send and receive block the whole script (and its coroutines). Scripts that
+// shouldn't stall use trySend, tryReceive or drain once a frame instead.
+final class ChannelNatives {
+    private ChannelNatives() {}
+
+    // Flow's null, while it's in a channel (null means an empty slot there).
+    private static final Object NULL = new Object();
+
+    static void install(Environment globals) {
+        globals.define("channel", new NativeFunction("channel", 2, (interpreter, args) -> {
+            return named(args.get(0), args.get(1), false, "channel");
+        }));
+
+        globals.define("spscChannel", new NativeFunction("spscChannel", 2, (interpreter, args) -> {
+            return named(args.get(0), args.get(1), true, "spscChannel");
+        }));
+
+        globals.define("closeChannel", new NativeFunction("closeChannel", 1, (interpreter, args) -> {
+            if (!(args.get(0) instanceof String)) throw new NativeFunction.Failure("'closeChannel' expects a name.");
+            return Context.current().channels.close((String)args.get(0));
+        }));
+
+        globals.define("send", new NativeFunction("send", 2, (interpreter, args) -> {
+            try {
+                sending(args.get(0), "send").put(wrap(args.get(1)));
+            } catch (InterruptedException error) {
+                throw interrupted();
+            }
+            return null;
+        }));
+
+        globals.define("trySend", new NativeFunction("trySend", 2, (interpreter, args) -> {
+            return sending(args.get(0), "trySend").offer(wrap(args.get(1)));
+        }));
+
+        globals.define("receive", new NativeFunction("receive", 1, (interpreter, args) -> {
+            try {
+                return unwrap(receiving(args.get(0), "receive").take());
+            } catch (InterruptedException error) {
+                throw interrupted();
+            }
+        }));
+
+        // Null if there was nothing; send values you can tell apart from that.
+        globals.define("tryReceive", new NativeFunction("tryReceive", 1, (interpreter, args) -> {
+            return unwrap(receiving(args.get(0), "tryReceive").poll());
+        }));
+
+        globals.define("drain", new NativeFunction("drain", 2, (interpreter, args) -> {
+            Channel channel = receiving(args.get(0), "drain");
+            int limit = count(args.get(1), "drain");
+            List<Object> values = new ArrayList<>(Math.min(limit, channel.capacity));
+            channel.drain(values, limit);
+            for (int i = 0; i < values.size(); i++) values.set(i, unwrap(values.get(i)));
+            return values;
+        }));
+
+        globals.define("pending", new NativeFunction("pending", 1, (interpreter, args) -> {
+            return (double)channel(args.get(0), "pending").size();
+        }));
+    }
+
+    // =========================================================================
+    // == ARGUMENT HELPERS
+    // =========================================================================
+
+    private static Channel named(Object name, Object capacity, boolean singleProducer, String function) {
+        if (!(name instanceof String)) throw new NativeFunction.Failure("'" + function + "' expects a name.");
+        try {
+            return Context.current().channels.named((String)name, count(capacity, function), singleProducer);
+        } catch (IllegalArgumentException error) {
+            throw new NativeFunction.Failure(error.getMessage());
+        }
+    }
+
+    private static Channel channel(Object value, String function) {
+        if (value instanceof Channel) return (Channel)value;
+        throw new NativeFunction.Failure("'" + function + "' expects a channel.");
+    }
+
+    // The channel, if the current script may receive from it.
+    private static Channel receiving(Object value, String function) {
+        Channel channel = channel(value, function);
+        if (!channel.claimReceiver(Context.current())) {
+            throw new NativeFunction.Failure("Channel '" + channel.name +
+                "' already has a receiver in another script, and can only have one.");
+        }
+        return channel;
+    }
+
+    // The channel, if the current script may send on it.
+    private static Channel sending(Object value, String function) {
+        Channel channel = channel(value, function);
+        if (!channel.claimSender(Context.current())) {
+            throw new NativeFunction.Failure("Channel '" + channel.name + "' is " + channel.kind() +
+                ", and already has a sender in another script.");
+        }
+        return channel;
+    }
+
+    private static int count(Object value, String function) {
+        if (value instanceof Double) {
+            double count = (double)value;
+            if (count >= 1 && count <= Integer.MAX_VALUE && count == Math.floor(count)) return (int)count;
+        }
+        throw new NativeFunction.Failure("'" + function + "' expects a whole number of at least 1.");
+    }
+
+    private static Object wrap(Object value) {
+        if (value == null) return NULL;
+        if (value instanceof Double || value instanceof String || value instanceof Boolean) return value;
+        throw new NativeFunction.Failure("Only numbers, strings, booleans and null can be sent on a channel.");
+    }
+
+    private static Object unwrap(Object value) {
+        return value == NULL ? null : value;
+    }
+
+    // Keep the flag set, so Fuel stops the script at its next step.
+    private static NativeFunction.Failure interrupted() {
+        Thread.currentThread().interrupt();
+        return new NativeFunction.Failure("Script interrupted.");
+    }
+}
@@ -0,0 +1,46 @@
+// In src/main/java/ChannelRegistry.java
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+// Where scripts find Channels by name.
+//
+// Every Context starts with a registry of its own, so channel("hits", 64) in
+// one Context (one daemon request, say) never sees values queued by another.
+// Scripts that should talk share one: a ScriptScheduler hands its registry to
+// every Context it runs, and a host can do the same by hand:
+//
+//   ChannelRegistry shared = new ChannelRegistry();
+//   producer.channels = shared;
+//   consumer.channels = shared;
+//
+// A name stays taken until close(name), or until the registry is dropped.
+final class ChannelRegistry {
+    private final ConcurrentMap<String, Channel> named = new ConcurrentHashMap<>();
+
+    // The channel called 'name', made with 'capacity' (rounded up to a power of
+    // two) the first time anyone asks for it. Asking again for a different kind
+    // or capacity is an IllegalArgumentException.
+    Channel named(String name, int capacity, boolean singleProducer) {
+        Channel channel = named.computeIfAbsent(name, key ->
+            singleProducer ? new SpscChannel(key, capacity) : new MpscChannel(key, capacity));
+        if ((channel instanceof SpscChannel) != singleProducer) {
+            throw new IllegalArgumentException("Channel '" + name + "' already exists as " + channel.kind() + ".");
+        }
+        if (Channel.roundCapacity(capacity) != channel.capacity) {
+            throw new IllegalArgumentException("Channel '" + name + "' already exists with capacity " +
+                channel.capacity + ".");
+        }
+        return channel;
+    }
+
+    // Forgets the name, so the next named() makes a new channel. Anyone still
+    // holding the old one can go on using it. False if there was no such channel.
+    boolean close(String name) {
+        return named.remove(name) != null;
+    }
+
+    void clear() {
+        named.clear();
+    }
+}
@@ -0,0 +1,31 @@
+// In src/main/java/ColumnKernels.java
+
+// The bulk math behind World's column operations.
+// If the JVM was started with '--add-modules jdk.incubator.vector' we hand the
+// work to VectorColumnKernels (explicit SIMD). Otherwise we use plain counted
+// loops, which is the same math one element at a time.
+final class ColumnKernels {
+    // Set -Dhyperscript.vector=false to force the scalar loops.
+    static final boolean VECTORIZED =
+        !"false".equals(System.getProperty("hyperscript.vector"))
+        && ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent();
+
+    private ColumnKernels() {}
+
+    // target[i] += source[i] * factor, for i in [from, to).
+    static void axpy(double[] target, double[] source, double factor, int from, int to) {
+        // We only touch VectorColumnKernels when the module is really there,
+        // otherwise loading that class would fail.
+        if (VECTORIZED) {
+            VectorColumnKernels.axpy(target, source, factor, from, to);
+        } else {
+            scalarAxpy(target, source, factor, from, to);
+        }
+    }
+
+    static void scalarAxpy(double[] target, double[] source, double factor, int from, int to) {
+        for (int i = from; i < to; i++) {
+            target[i] += source[i] * factor;
+        }
+    }
+}
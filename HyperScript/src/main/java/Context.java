@@ -0,0 +1,150 @@
+// In src/main/java/Context.java
+
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.function.Supplier;
+
+// One isolated HyperScript runtime: its own Interpreter (so its own globals and
+// World), its own error flags and its own output sinks.
+//
+//   Context context = new Context(out, err);
+//   context.set("limit", 10.0);
+//   int status = context.eval("print limit * 2");
+//
+// Contexts share NOTHING mutable, so any number of them can run in parallel,
+// e.g. one per virtual thread. A single Context is NOT thread-safe though:
+// use it from one thread at a time.
+//
+// The Scanner, parsers and analyzers report errors through the static
+// HyperScript.error(...), which goes to Context.current(): the Context this
+// thread is running in, or the command line's HyperScript.context if none.
+// Code that hands work to other threads (parallel parsing in the BuildGraph,
+// say) captures the Context first and re-enters it with runIn/callIn.
+class Context {
+    private static final ThreadLocal<Context> CURRENT = new ThreadLocal<>();
+
+    // Everything printed by the default constructor goes through one shared,
+    // buffered stdout sink. NOT autoflushed: flush when a run is over.
+    private static final PrintStream STDOUT =
+        new PrintStream(OutputSink.stdout(), false, StandardCharsets.UTF_8);
+
+    final Interpreter interpreter;
+    final Fuel fuel;                // Instruction budget; unlimited unless someone sets one
+    final PrintStream out;          // What scripts print
+    final PrintStream err;          // Errors
+    final PrintStream diagnostics;  // The pipeline windows (tokens, AST, archetypes...), or null for none
+    boolean hadError = false;
+    boolean hadRuntimeError = false;
+    // Shared by every Blueprint in the project, so each attached Flow is parsed once.
+    AttachmentLoader attachments;
+    // Where channel(name, capacity) looks. Our own unless a host shares one (see ChannelRegistry).
+    ChannelRegistry channels = new ChannelRegistry();
+
+    Context() {
+        this(STDOUT, System.err);
+    }
+
+    Context(PrintStream out, PrintStream err) {
+        this(out, err, null);
+    }
+
+    Context(PrintStream out, PrintStream err, PrintStream diagnostics) {
+        this.out = out;
+        this.err = err;
+        this.diagnostics = diagnostics;
+        this.interpreter = new Interpreter(this);
+        this.fuel = new Fuel(interpreter);
+    }
+
+    // The buffered stdout the default constructor prints to.
+    static PrintStream stdout() {
+        return STDOUT;
+    }
+
+    static Context current() {
+        Context context = CURRENT.get();
+        return context != null ? context : HyperScript.context;
+    }
+
+    // =========================================================================
+    // == ENTERING
+    // =========================================================================
+
+    void runIn(Runnable task) {
+        Context previous = CURRENT.get();
+        CURRENT.set(this);
+        try {
+            task.run();
+        } finally {
+            CURRENT.set(previous);
+        }
+    }
+
+    <T> T callIn(Supplier<T> task) {
+        Context previous = CURRENT.get();
+        CURRENT.set(this);
+        try {
+            return task.get();
+        } finally {
+            CURRENT.set(previous);
+        }
+    }
+
+    // =========================================================================
+    // == EMBEDDING
+    // =========================================================================
+
+    // Scans, parses and runs Flow source in this Context. Nothing is printed
+    // except what the script prints. Returns 0, 65 (syntax) or 70 (runtime).
+    int eval(String source) {
+        return callIn(() -> {
+            hadError = false;
+            hadRuntimeError = false;
+            List<Stmt> statements = new FlowParser(new Scanner(source).scanTokens()).parse();
+            if (hadError) return 65;
+            interpreter.interpret(statements);
+            return hadRuntimeError ? 70 : 0;
+        });
+    }
+
+    // Defines (or overwrites) a global variable.
+    void set(String name, Object value) {
+        interpreter.globals.define(name, value);
+    }
+
+    // Reads a global variable. Throws Interpreter.RuntimeError if there is none.
+    Object get(String name) {
+        return interpreter.globals.get(new Token(TokenType.IDENTIFIER, name, null, 0));
+    }
+
+    void flush() {
+        out.flush();
+        if (diagnostics != null) diagnostics.flush();
+    }
+
+    // =========================================================================
+    // == ERROR REPORTING
+    // =========================================================================
+
+    void report(int line, String where, String message) {
+        // Using err to separate error messages from normal output.
+        // Anything printed before the error should show up before it, too.
+        flush();
+        err.println("[line " + line + "] Error" + where + ": " + message);
+        hadError = true;
+    }
+
+    // Nothing could even be built (see HyperScript.cannotBuild).
+    void fatal(String message) {
+        flush();
+        err.println("FATAL: " + message);
+        hadError = true;
+    }
+
+    void runtimeError(Interpreter.RuntimeError error) {
+        flush();
+        err.println(error.getMessage() + "\n[line " + error.token.line + "]");
+        hadRuntimeError = true;
+    }
+}
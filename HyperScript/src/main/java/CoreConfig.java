@@ -0,0 +1,86 @@
+// In src/main/java/CoreConfig.java
+
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+// The project's one .core file: 'KEY: value' settings, one per line.
+//
+//   //This is the core File
+//   STARTING_POINT: Simulation.hfl
+//
+// It goes through the normal Scanner, so comments and blank lines behave
+// exactly like they do in Flow and Blueprint files.
+class CoreConfig {
+    static final String STARTING_POINT = "STARTING_POINT";
+
+    final Path file;
+    private final Map<String, Token> settings;
+
+    private CoreConfig(Path file, Map<String, Token> settings) {
+        this.file = file;
+        this.settings = settings;
+    }
+
+    // Finds the single .core file at the top of a project directory.
+    static Path find(Path projectDir) throws IOException {
+        List<Path> cores;
+        try (Stream<Path> stream = Files.list(projectDir)) {
+            cores = stream.filter(path -> path.toString().endsWith(".core")).collect(Collectors.toList());
+        }
+        if (cores.size() != 1) {
+            throw new IOException("Expected exactly one .core file in " + projectDir + ", found " + cores.size() + ".");
+        }
+        return cores.get(0);
+    }
+
+    static CoreConfig parse(Path file) throws IOException {
+        String source = new String(Files.readAllBytes(file), Charset.defaultCharset());
+        List<Token> tokens = new Scanner(source).scanTokens();
+
+        Map<String, Token> settings = new LinkedHashMap<>();
+        int current = 0;
+        while (tokens.get(current).type != TokenType.EOF) {
+            Token key = tokens.get(current);
+            if (key.type == TokenType.EOL) {
+                current++;
+                continue;
+            }
+            if (key.type != TokenType.IDENTIFIER || tokens.get(current + 1).type != TokenType.COLON) {
+                HyperScript.error(key, "Expect 'SETTING: value' in core file.");
+                // Skip the rest of the line and keep going.
+                while (tokens.get(current).type != TokenType.EOL && tokens.get(current).type != TokenType.EOF) current++;
+                continue;
+            }
+            current += 2;
+
+            // The value is everything up to the end of the line, glued back together
+            // (so 'Simulation . hfl' tokens become 'Simulation.hfl').
+            StringBuilder value = new StringBuilder();
+            int line = key.line;
+            while (tokens.get(current).type != TokenType.EOL && tokens.get(current).type != TokenType.EOF) {
+                value.append(tokens.get(current).lexeme);
+                current++;
+            }
+            String text = value.toString();
+            settings.put(key.lexeme, new Token(TokenType.STRING, text, text, line));
+        }
+        return new CoreConfig(file, settings);
+    }
+
+    // Returns null if the setting isn't there.
+    Token get(String key) {
+        return settings.get(key);
+    }
+
+    Map<String, Token> settings() {
+        return Collections.unmodifiableMap(settings);
+    }
+}
@@ -0,0 +1,163 @@
+// In src/main/java/Coroutine.java
+
+import java.util.List;
+import java.util.concurrent.locks.LockSupport;
+
+// A Flow function that can stop halfway and carry on later.
+//
+//   function patrol()
+//       while (true) do
+//           print "left"
+//           wait 2 seconds
+//           print "right"
+//           wait 2 seconds
+//       end
+//   end
+//   let guard = coroutine(patrol)   // runs now, up to its first wait
+//   cancel(guard)                   // or lets it go on until the loop ends
+//
+// Each coroutine runs on its own virtual thread, so 'wait' can suspend it in
+// the middle of any number of nested calls, loops and blocks without turning
+// the Interpreter inside out. A suspended virtual thread is just its stack,
+// copied to the heap: a few kilobytes for a tree-walker a dozen calls deep,
+// and no OS thread at all.
+//
+// The threads never run at the same time. resume() hands the Interpreter over
+// and parks until the coroutine gives it back, by waiting or by finishing, so
+// Flow code still sees one thread at a time, just like without coroutines.
+// The bits of Interpreter state that belong to a strand of Flow code (its
+// scope chain, its profiler stack) are swapped at every handoff.
+//
+// Wake-ups are timers in the EventLoop's TimerWheel, so coroutines move on in
+// fixed steps with everything else, and all the ones due in a frame are
+// resumed in that frame's batch.
+final class Coroutine {
+    // Thrown out of 'wait' in a cancelled coroutine, to unwind its Flow stack.
+    // Not a RuntimeError: nothing went wrong, so nothing gets reported.
+    static final class Cancelled extends RuntimeException {
+        Cancelled() {
+            super(null, null, false, false);
+        }
+    }
+
+    private final Interpreter interpreter;
+    private final Thread thread;
+
+    // While 'running', the coroutine's thread has the Interpreter; its resumer waits.
+    // Written by whichever side hands over, read by the other, hence volatile.
+    private volatile boolean running = false;
+    private volatile boolean done = false;
+    private volatile boolean cancelled = false;
+    private Thread resumer;      // Who to hand back to
+    private Coroutine outer;     // The coroutine 'resumer' was running, if any
+    private Throwable failure;   // What the body threw, for resume() to rethrow
+
+    // The strand's state while it isn't running.
+    private Environment environment;
+    private FlowProfiler.Stack profile;
+
+    // The pending wake-up, if it's waiting.
+    TimerWheel.Timer wakeUp;
+
+    Coroutine(Interpreter interpreter, Context context, HyperScriptCallable body, Token where) {
+        this.interpreter = interpreter;
+        this.environment = interpreter.globals;
+        if (FlowProfiler.ENABLED) {
+            profile = new FlowProfiler.Stack();
+            profile.enter(FlowProfiler.COROUTINE);
+        }
+        this.thread = Thread.ofVirtual().name("hyperscript-coroutine").unstarted(() -> context.runIn(() -> {
+            try {
+                if (!cancelled) interpreter.callBack(body, List.of(), where);
+            } catch (Cancelled ignored) {
+                // Unwound; that's all cancelling means.
+            } catch (Throwable error) {
+                failure = error;
+            } finally {
+                done = true;
+                running = false;
+                LockSupport.unpark(resumer);
+            }
+        }));
+    }
+
+    boolean isDone() {
+        return done;
+    }
+
+    // Runs the coroutine until it waits or finishes. Anything it throws is
+    // rethrown here, on the resuming thread, so errors surface where Flow
+    // would expect them: at the coroutine(...) call, or in the event loop.
+    void resume() {
+        if (done) return;
+        resumer = Thread.currentThread();
+        Environment outerEnvironment = interpreter.swapEnvironment(environment);
+        FlowProfiler.Stack outerProfile = interpreter.swapProfile(profile);
+        outer = interpreter.coroutine;
+        interpreter.coroutine = this;
+
+        running = true; // Publishes everything above to the coroutine's thread
+        if (thread.getState() == Thread.State.NEW) thread.start();
+        else LockSupport.unpark(thread);
+        boolean interrupted = false;
+        while (running) {
+            LockSupport.park(this);
+            if (Thread.currentThread().isInterrupted()) {
+                // Whoever stops us (Future.cancel, the event loop) means the
+                // coroutine too: its Fuel stops it, and then ours stops us.
+                // Passed on before it's cleared (so park() can block again),
+                // so the coroutine always sees one flag or the other.
+                thread.interrupt();
+                Thread.interrupted();
+                interrupted = true;
+            }
+        }
+        if (interrupted) Thread.currentThread().interrupt();
+
+        interpreter.coroutine = outer;
+        profile = interpreter.swapProfile(outerProfile);
+        environment = interpreter.swapEnvironment(outerEnvironment);
+
+        Throwable error = failure;
+        failure = null;
+        if (error instanceof RuntimeException) throw (RuntimeException)error;
+        if (error instanceof Error) throw (Error)error;
+    }
+
+    // Whether a thread waiting on this coroutine, or on one that resumed it,
+    // has been interrupted. Fuel asks, as the coroutine can't count on its
+    // resumer getting a carrier to pass the interrupt on: a coroutine that
+    // never waits keeps its carrier for good.
+    boolean resumerInterrupted() {
+        return resumer.isInterrupted() || (outer != null && outer.resumerInterrupted());
+    }
+
+    // Called on the coroutine's own thread, by 'wait'. Returns when resumed.
+    void suspend() {
+        if (cancelled) throw new Cancelled();
+        running = false;
+        LockSupport.unpark(resumer);
+        boolean interrupted = false;
+        while (!running) {
+            LockSupport.park(this);
+            if (Thread.interrupted()) interrupted = true; // Kept for Fuel, once we run again
+        }
+        if (interrupted) Thread.currentThread().interrupt();
+        if (cancelled) throw new Cancelled();
+    }
+
+    // Stops it for good. A suspended coroutine is resumed once more, to unwind
+    // its stack on its own thread; a running one (cancelling itself, or one of
+    // the coroutines that started it) stops at its next wait.
+    void cancel() {
+        if (done || cancelled) return;
+        cancelled = true;
+        if (interpreter.coroutine == this) throw new Cancelled();
+        if (!running) resume();
+    }
+
+    @Override
+    public String toString() {
+        return "<coroutine" + (done ? " done" : cancelled ? " cancelled" : "") + ">";
+    }
+}
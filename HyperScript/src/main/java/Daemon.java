@@ -0,0 +1,223 @@
+// In src/main/java/Daemon.java
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+// 'HyperScript --daemon [socket]': keep one warmed-up JVM around and run
+// scripts for DaemonClient over a Unix domain socket.
+//
+// A cold 'java HyperScript file.hfl' spends most of its time starting the JVM,
+// loading classes and interpreting the interpreter. The daemon pays that once;
+// after a few requests the Scanner, parsers and Interpreter are JIT-compiled
+// and a short script is done in a few milliseconds.
+//
+// Requests are served ONE AT A TIME, each in a brand new Context (whose output
+// goes back to the client), so no globals, entities or error flags leak from
+// one run to the next. Each also gets a fuel limit (-Dhyperscript.daemon.fuel
+// steps, see Fuel), so a script stuck in a loop can't keep the daemon from
+// everyone else forever.
+//
+// --- THE WIRE FORMAT ---
+// Request:  one line, "<command>\t<absolute path>\n". Commands: run, check, stop.
+// Response: frames of [tag: 1 byte][length: int][payload], where the tag is
+//           'O' (stdout bytes), 'E' (stderr bytes) or 'X' (payload = int exit status,
+//           always the last frame).
+class Daemon {
+    static final byte STDOUT = 'O';
+    static final byte STDERR = 'E';
+    static final byte EXIT = 'X';
+
+    // Requests are a single short line; anything longer is refused.
+    private static final int MAX_REQUEST = 8192;
+
+    // Steps one request may run. A billion is seconds of work, far past any script
+    // a client would want to wait for.
+    private static final long FUEL = Long.getLong("hyperscript.daemon.fuel", 1_000_000_000L);
+
+    static Path defaultSocket() {
+        return Paths.get(System.getProperty("java.io.tmpdir"),
+            "hyperscript-" + System.getProperty("user.name") + ".sock");
+    }
+
+    static void serve(Path socket) throws IOException {
+        // A socket file left behind by a daemon that was killed would block bind(),
+        // but one a live daemon is listening on isn't ours to take.
+        if (isListening(socket)) throw new IOException("A daemon is already listening on " + socket + ".");
+        Files.deleteIfExists(socket);
+        PrintStream console = System.out;
+        PrintStream consoleErr = System.err;
+
+        try (ServerSocketChannel server = ServerSocketChannel.open(StandardProtocolFamily.UNIX)) {
+            server.bind(UnixDomainSocketAddress.of(socket));
+            console.println("--- [HyperScript Daemon listening on " + socket + "] ---");
+
+            boolean running = true;
+            while (running) {
+                try (SocketChannel client = server.accept()) {
+                    running = handle(client, console);
+                } catch (IOException e) {
+                    // One client hanging up early must not take the daemon down.
+                    consoleErr.println("Daemon: request failed: " + e.getMessage());
+                }
+            }
+        } finally {
+            Files.deleteIfExists(socket);
+        }
+        console.println("--- [HyperScript Daemon stopped] ---");
+    }
+
+    private static boolean isListening(Path socket) {
+        if (!Files.exists(socket)) return false;
+        try (SocketChannel probe = SocketChannel.open(UnixDomainSocketAddress.of(socket))) {
+            return true;
+        } catch (IOException stale) {
+            return false; // Nobody home (or not a socket at all, which bind() will report)
+        }
+    }
+
+    // Serves one request. Returns false if the daemon was asked to stop.
+    private static boolean handle(SocketChannel client, PrintStream console) throws IOException {
+        String request = readRequest(client);
+        if (request == null) return true; // Hung up without asking: another daemon's isListening() probe
+        int tab = request.indexOf('\t');
+        String command = tab < 0 ? request : request.substring(0, tab);
+        String target = tab < 0 ? "" : request.substring(tab + 1);
+
+        Frames frames = new Frames(client);
+        // Everything the run prints goes back to the client, not to our console.
+        PrintStream out = new PrintStream(frames.stream(STDOUT), false, StandardCharsets.UTF_8);
+        PrintStream err = new PrintStream(frames.stream(STDERR), false, StandardCharsets.UTF_8);
+        HyperScript.context = new Context(out, err, out); // Pipeline windows included, as on the command line
+        HyperScript.context.fuel.limit(FUEL);
+
+        long start = System.nanoTime();
+        int status;
+        boolean keepRunning = true;
+        try {
+            switch (command) {
+                case "run":   status = HyperScript.run(target); break;
+                case "check": status = HyperScript.check(target); break;
+                case "stop":  status = 0; keepRunning = false; break;
+                default:
+                    err.println("Daemon: unknown command '" + command + "'.");
+                    status = 64;
+            }
+        } catch (IOException e) {
+            err.println("Could not read " + target + ": " + e.getMessage());
+            status = 66;
+        } catch (RuntimeException e) {
+            // A bug in the engine, not in the script. Report it and keep serving.
+            err.println("Internal error: " + e);
+            status = 70;
+        } catch (StackOverflowError e) {
+            // Runaway recursion in the script. The stack unwinds with it, so the
+            // daemon is fine to go on.
+            err.println("Stack overflow.");
+            status = 70;
+        }
+        out.flush();
+        err.flush();
+        frames.exit(status);
+
+        console.printf("Daemon: %s %s -> %d (%.2f ms)%n", command, target, status, (System.nanoTime() - start) / 1e6);
+        return keepRunning;
+    }
+
+    // Null if the client hung up before sending anything.
+    private static String readRequest(SocketChannel client) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(MAX_REQUEST);
+        while (buffer.hasRemaining()) {
+            if (client.read(buffer) < 0) break;
+            int end = buffer.position();
+            if (end > 0 && buffer.get(end - 1) == '\n') break;
+        }
+        if (buffer.position() == 0) return null;
+        buffer.flip();
+        String line = StandardCharsets.UTF_8.decode(buffer).toString();
+        if (!line.endsWith("\n")) throw new IOException("Request too long or cut short.");
+        return line.substring(0, line.length() - 1);
+    }
+
+    // =========================================================================
+    // == OUTPUT FRAMING
+    // =========================================================================
+
+    // stdout and stderr share ONE buffer, so the client sees them in the order
+    // they were printed. The buffer is sent as a frame whenever it fills up or
+    // the output switches streams.
+    private static class Frames {
+        private final SocketChannel channel;
+        private final ByteBuffer buffer = ByteBuffer.allocate(16 * 1024);
+        private byte tag = STDOUT;
+
+        Frames(SocketChannel channel) {
+            this.channel = channel;
+        }
+
+        OutputStream stream(byte streamTag) {
+            return new OutputStream() {
+                @Override
+                public void write(int b) throws IOException {
+                    write(new byte[] { (byte)b }, 0, 1);
+                }
+
+                @Override
+                public void write(byte[] bytes, int offset, int length) throws IOException {
+                    append(streamTag, bytes, offset, length);
+                }
+
+                @Override
+                public void flush() throws IOException {
+                    send();
+                }
+            };
+        }
+
+        private void append(byte streamTag, byte[] bytes, int offset, int length) throws IOException {
+            if (streamTag != tag) {
+                send();
+                tag = streamTag;
+            }
+            while (length > 0) {
+                if (!buffer.hasRemaining()) send();
+                int chunk = Math.min(length, buffer.remaining());
+                buffer.put(bytes, offset, chunk);
+                offset += chunk;
+                length -= chunk;
+            }
+        }
+
+        private void send() throws IOException {
+            if (buffer.position() == 0) return;
+            buffer.flip();
+            writeFrame(tag, buffer);
+            buffer.clear();
+        }
+
+        void exit(int status) throws IOException {
+            send();
+            ByteBuffer payload = ByteBuffer.allocate(4).putInt(status);
+            payload.flip();
+            writeFrame(EXIT, payload);
+        }
+
+        private void writeFrame(byte frameTag, ByteBuffer payload) throws IOException {
+            ByteBuffer header = ByteBuffer.allocate(5).put(frameTag).putInt(payload.remaining());
+            header.flip();
+            ByteBuffer[] frame = { header, payload };
+            while (header.hasRemaining() || payload.hasRemaining()) {
+                channel.write(frame);
+            }
+        }
+    }
+}
@@ -0,0 +1,82 @@
+// In src/main/java/DaemonClient.java
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+// The thin client for the Daemon:
+//
+//   java DaemonClient run project          (or a single .hfl/.hbp)
+//   java DaemonClient check Tank.hbp
+//   java DaemonClient stop
+//
+// It deliberately touches NO interpreter classes, so its own startup is just
+// the JVM plus this file. The socket can be changed with -Dhyperscript.socket.
+class DaemonClient {
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1 || (args.length < 2 && !args[0].equals("stop"))) {
+            System.err.println("Usage: DaemonClient run|check <file or project directory> | stop");
+            System.exit(64);
+        }
+        String command = args[0];
+        // The daemon has its own working directory, so send absolute paths.
+        String target = args.length > 1 ? Paths.get(args[1]).toAbsolutePath().normalize().toString() : "";
+
+        String socketProperty = System.getProperty("hyperscript.socket");
+        Path socket = socketProperty != null ? Paths.get(socketProperty) : Paths.get(
+            System.getProperty("java.io.tmpdir"), "hyperscript-" + System.getProperty("user.name") + ".sock");
+
+        SocketChannel channel;
+        try {
+            channel = SocketChannel.open(StandardProtocolFamily.UNIX);
+            channel.connect(UnixDomainSocketAddress.of(socket));
+        } catch (IOException e) {
+            System.err.println("No HyperScript daemon at " + socket + ". Start one with 'HyperScript --daemon'.");
+            System.exit(69);
+            return;
+        }
+
+        try (channel) {
+            ByteBuffer request = StandardCharsets.UTF_8.encode(command + "\t" + target + "\n");
+            while (request.hasRemaining()) channel.write(request);
+            System.exit(relay(channel));
+        }
+    }
+
+    // Copies the daemon's output frames to our stdout/stderr. Returns the exit status.
+    private static int relay(SocketChannel channel) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(5);
+        byte[] payload = new byte[16 * 1024];
+        while (true) {
+            header.clear();
+            readFully(channel, header);
+            header.flip();
+            byte tag = header.get();
+            int length = header.getInt();
+
+            if (payload.length < length) payload = new byte[length];
+            ByteBuffer body = ByteBuffer.wrap(payload, 0, length);
+            readFully(channel, body);
+
+            if (tag == 'X') {
+                System.out.flush();
+                System.err.flush();
+                return ByteBuffer.wrap(payload, 0, 4).getInt();
+            }
+            OutputStream out = tag == 'E' ? System.err : System.out;
+            out.write(payload, 0, length);
+        }
+    }
+
+    private static void readFully(SocketChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer) < 0) throw new IOException("The daemon hung up mid-response.");
+        }
+    }
+}
@@ -0,0 +1,232 @@
+// In src/main/java/DiffMode.java
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+// 'HyperScript --diff [corpus] [options]': the differential harness.
+//
+// Runs the same programs through every execution tier and checks that they
+// all agree with the reference tier (the plain tree-walker) on EVERYTHING the
+// program can observe: what it printed, the error it stopped on, and the exit
+// status. Then reports how much faster each tier was.
+//
+// The programs are every .hfl file in the corpus directory (default
+// benchmarks/corpus) plus N random programs from RandomFlow.
+//
+// Options:
+//   --programs N   random programs to generate (default 500)
+//   --seed S       seed of the first random program (default 1); program i uses S + i
+//   --runs N       timed runs per program and tier (default 5)
+//
+// A new tier (a bytecode compiler, a cached-AST mode, ...) only has to be
+// added to TIERS. Exit status is 1 if any tier disagreed; the first few
+// mismatches are printed with their seed, so they can be replayed alone.
+class DiffMode {
+    private static final int DEFAULT_PROGRAMS = 500;
+    private static final int DEFAULT_RUNS = 5;
+    private static final int MAX_REPORTED = 5;
+
+    // What a program did, as far as anyone outside it can tell.
+    static final class Outcome {
+        final String out;
+        final String err;
+        final int status;
+
+        Outcome(String out, String err, int status) {
+            this.out = out;
+            this.err = err;
+            this.status = status;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (!(other instanceof Outcome)) return false;
+            Outcome that = (Outcome)other;
+            return status == that.status && out.equals(that.out) && err.equals(that.err);
+        }
+
+        @Override
+        public int hashCode() {
+            return out.hashCode() * 31 + err.hashCode() + status;
+        }
+
+        @Override
+        public String toString() {
+            return "status " + status + "\n--- out ---\n" + out + "--- err ---\n" + err;
+        }
+    }
+
+    // One way of executing Flow source.
+    interface Tier {
+        String name();
+
+        // Everything that can be done once per program (parsing, compiling) happens
+        // here, untimed. The result is run() as many times as needed.
+        Prepared prepare(String source);
+    }
+
+    interface Prepared {
+        Outcome run();
+    }
+
+    // =========================================================================
+    // == THE TIERS
+    // =========================================================================
+
+    // The reference: scan, parse and interpret from scratch, in a fresh Context,
+    // exactly like 'HyperScript file.hfl'.
+    static final Tier INTERPRETER = new Tier() {
+        public String name() { return "interpreter"; }
+
+        public Prepared prepare(String source) {
+            return () -> capture((out, err) -> new Context(out, err).eval(source));
+        }
+    };
+
+    // Parsed once into a PreparedScript, then run on fresh Contexts. Catches any
+    // state that leaks between runs through the shared AST.
+    static final Tier PREPARED = new Tier() {
+        public String name() { return "prepared"; }
+
+        public Prepared prepare(String source) {
+            PreparedScript script;
+            try {
+                script = PreparedScript.compile(source);
+            } catch (PreparedScript.CompileError error) {
+                return () -> new Outcome("", error.getMessage() + "\n", 65);
+            }
+            return () -> capture((out, err) -> {
+                Context context = new Context(out, err);
+                try {
+                    script.run(context, Map.of());
+                    return 0;
+                } catch (Interpreter.RuntimeError error) {
+                    context.runtimeError(error);
+                    return 70;
+                }
+            });
+        }
+    };
+
+    static final List<Tier> TIERS = List.of(INTERPRETER, PREPARED);
+
+    private interface Execution {
+        int run(PrintStream out, PrintStream err);
+    }
+
+    private static Outcome capture(Execution execution) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ByteArrayOutputStream err = new ByteArrayOutputStream();
+        PrintStream outStream = new PrintStream(out, false, StandardCharsets.UTF_8);
+        PrintStream errStream = new PrintStream(err, false, StandardCharsets.UTF_8);
+        int status;
+        try {
+            status = execution.run(outStream, errStream);
+        } catch (RuntimeException | StackOverflowError crash) {
+            // Not a Flow error: the engine itself fell over. Tiers should at least
+            // fall over the same way.
+            errStream.println("crash: " + crash.getClass().getSimpleName());
+            status = -1;
+        }
+        outStream.flush();
+        errStream.flush();
+        return new Outcome(out.toString(StandardCharsets.UTF_8), err.toString(StandardCharsets.UTF_8), status);
+    }
+
+    // =========================================================================
+    // == THE HARNESS
+    // =========================================================================
+
+    static int run(String[] args) throws IOException {
+        Path corpus = Paths.get(args.length > 1 && !args[1].startsWith("--") ? args[1] : "benchmarks/corpus");
+        int programs = DEFAULT_PROGRAMS;
+        long seed = 1;
+        int runs = DEFAULT_RUNS;
+        for (int i = 1; i < args.length; i++) {
+            switch (args[i]) {
+                case "--programs": programs = Integer.parseInt(args[++i]); break;
+                case "--seed": seed = Long.parseLong(args[++i]); break;
+                case "--runs": runs = Math.max(1, Integer.parseInt(args[++i])); break;
+                default: // The corpus directory itself
+            }
+        }
+
+        List<String> names = new ArrayList<>();
+        List<String> sources = new ArrayList<>();
+        if (Files.isDirectory(corpus)) {
+            List<Path> files;
+            try (Stream<Path> stream = Files.list(corpus)) {
+                files = stream.filter(path -> path.toString().endsWith(".hfl")).sorted().collect(Collectors.toList());
+            }
+            for (Path file : files) {
+                names.add(file.getFileName().toString());
+                sources.add(new String(Files.readAllBytes(file), Charset.defaultCharset()));
+            }
+        }
+        for (int i = 0; i < programs; i++) {
+            names.add("random seed " + (seed + i));
+            sources.add(RandomFlow.generate(seed + i));
+        }
+        return run(names, sources, runs);
+    }
+
+    static int run(List<String> names, List<String> sources, int runs) {
+        PrintStream console = System.out;
+        console.println("--- [HyperScript Differential Harness: " + sources.size() + " programs, "
+            + TIERS.size() + " tiers] ---");
+
+        Tier reference = TIERS.get(0);
+        long[] nanos = new long[TIERS.size()];
+        int[] mismatches = new int[TIERS.size()];
+        int reported = 0;
+        int errored = 0;
+
+        for (int p = 0; p < sources.size(); p++) {
+            String source = sources.get(p);
+            Outcome expected = null;
+            for (int t = 0; t < TIERS.size(); t++) {
+                Tier tier = TIERS.get(t);
+                Prepared prepared = tier.prepare(source);
+                Outcome outcome = prepared.run(); // Untimed: the one we compare, and a warmup
+                long start = System.nanoTime();
+                for (int r = 0; r < runs; r++) prepared.run();
+                nanos[t] += System.nanoTime() - start;
+
+                if (t == 0) {
+                    expected = outcome;
+                    if (outcome.status != 0) errored++;
+                } else if (!outcome.equals(expected)) {
+                    mismatches[t]++;
+                    if (reported++ < MAX_REPORTED) {
+                        console.println("\nMISMATCH in " + names.get(p) + ": " + tier.name() + " vs " + reference.name());
+                        console.println("=== program ===\n" + source);
+                        console.println("=== " + reference.name() + " ===\n" + expected);
+                        console.println("=== " + tier.name() + " ===\n" + outcome);
+                    }
+                }
+            }
+        }
+
+        console.printf("%d programs, %d of them stopped on an error (in every tier alike, or see above).%n",
+            sources.size(), errored);
+        console.printf("%-14s %12s %10s %12s%n", "tier", "total ms", "speedup", "mismatches");
+        int total = 0;
+        for (int t = 0; t < TIERS.size(); t++) {
+            console.printf("%-14s %12.1f %9.2fx %12d%n", TIERS.get(t).name(), nanos[t] / 1e6,
+                nanos[t] > 0 ? (double)nanos[0] / nanos[t] : 0, mismatches[t]);
+            total += mismatches[t];
+        }
+        return total > 0 ? 1 : 0;
+    }
+}
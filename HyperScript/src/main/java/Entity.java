@@ -0,0 +1,30 @@
+// In src/main/java/Entity.java
+
+// An Entity is just a handle: which archetype, and which row in its columns.
+// This is the value Flow scripts get back from 'spawn'.
+class Entity {
+    final Archetype archetype;
+    final int row;
+
+    Entity(Archetype archetype, int row) {
+        this.archetype = archetype;
+        this.row = row;
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        if (!(other instanceof Entity)) return false;
+        Entity entity = (Entity)other;
+        return entity.archetype == archetype && entity.row == row;
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * archetype.hashCode() + row;
+    }
+
+    @Override
+    public String toString() {
+        return "<" + archetype.name + " #" + row + ">";
+    }
+}
@@ -1,6 +1,7 @@
 // In src/main/java/Environment.java
 import java.util.HashMap;
 import java.util.Map;
+import java.util.function.BiConsumer;
 
 class Environment {
     // A link to the parent scope. It's 'final' because it never changes.
@@ -10,11 +11,13 @@ class Environment {
     // Constructor for the global scope (has no parent)
     Environment() {
         this.enclosing = null;
+        if (RuntimeMetrics.ENABLED) RuntimeMetrics.ENVIRONMENTS.increment();
     }
 
     // Constructor for local scopes (takes its parent as an argument)
     Environment(Environment enclosing) {
         this.enclosing = enclosing;
+        if (RuntimeMetrics.ENABLED) RuntimeMetrics.ENVIRONMENTS.increment();
     }
 
     // Define a variable in the CURRENT scope.
@@ -22,6 +25,22 @@ class Environment {
         values.put(name, value);
     }
 
+    // Visit every variable in THIS scope (not the parents).
+    void forEach(BiConsumer<String, Object> action) {
+        values.forEach(action);
+    }
+
+    // A copy of THIS scope's variables, for restore().
+    Map<String, Object> snapshot() {
+        return new HashMap<>(values);
+    }
+
+    // Makes this scope hold exactly what snapshot() saw, and nothing else.
+    void restore(Map<String, Object> snapshot) {
+        values.clear();
+        values.putAll(snapshot);
+    }
+
     // Get a variable. If not found here, check the parent.
     Object get(Token name) {
         if (values.containsKey(name.lexeme)) {
@@ -0,0 +1,324 @@
+// In src/main/java/EventLoop.java
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.locks.LockSupport;
+
+// The runtime's frame loop: what 'deltaTime', 'Events' blocks and timers run on.
+//
+//   Events
+//       function start() ... end              once, before the first frame
+//       function update(deltaTime) ... end    every fixed step
+//       function frame() ... end              once a frame, after its steps and timers
+//       function stop() ... end               once, when the loop ends
+//   end
+//   every(0.5, blink)                         // timers, see EventNatives
+//
+// When a script's top level is done, the Interpreter hands over to run(), if
+// there's anything to run. The loop goes until stopLoop() is called or there's
+// nothing left to do: no update or frame handler, and no timers.
+//
+// FIXED TIMESTEP. update() always moves the simulation by the same deltaTime
+// (1 / -Dhyperscript.tickRate, default 60), however fast frames come. Real
+// time piles up in 'lag' and is paid out one step at a time, so physics runs
+// the same on a fast machine and a slow one. If a frame falls far behind (a GC
+// pause, a breakpoint), it runs at most -Dhyperscript.maxCatchUp steps (default
+// 5) and drops the rest, instead of spiralling into ever longer catch-up frames.
+//
+// PACING. Between frames the loop parks until the next step is due, then spins
+// for the last SPIN_NANOS. parkNanos alone tends to oversleep by tens of
+// microseconds or more, and that jitter would end up in every frame. Deadlines
+// are absolute (worked out from 'lag'), so oversleeping once never adds up.
+//
+// TIMERS. after()/every() go in a TimerWheel that ticks once per step, so
+// they're timed in simulation steps, like update(). What comes due during a
+// frame's steps is collected, then dispatched together once the steps are done:
+// one batch per frame, not one wake-up per timer.
+//
+// -Dhyperscript.realtime=false drops the pacing: one step per frame, back to
+// back, which is what benchmarks and tests want. -Dhyperscript.frames=N stops
+// after N frames either way.
+//
+// Not thread-safe, like the Interpreter that owns it. Under a ScriptScheduler,
+// a realtime loop keeps its slot while it sleeps between frames.
+final class EventLoop {
+    static final String EVENT_NAMES = "start, update, frame or stop";
+
+    private static final double TICK_RATE = Double.parseDouble(System.getProperty("hyperscript.tickRate", "60"));
+    private static final int MAX_CATCH_UP = Integer.getInteger("hyperscript.maxCatchUp", 5);
+    private static final boolean REALTIME = Boolean.parseBoolean(System.getProperty("hyperscript.realtime", "true"));
+    private static final long FRAME_LIMIT = Long.getLong("hyperscript.frames", 0);
+    private static final long SPIN_NANOS = 200_000;
+
+    private final Interpreter interpreter;
+    private final Context context;
+    final long stepNanos = Math.round(1e9 / TICK_RATE);
+    final double stepSeconds = 1 / TICK_RATE;
+    private final List<Object> deltaTimeArgument = List.of(stepSeconds);
+
+    private final List<HyperScriptCallable> start = new ArrayList<>();
+    private final List<HyperScriptCallable> update = new ArrayList<>();
+    private final List<HyperScriptCallable> frame = new ArrayList<>();
+    private final List<HyperScriptCallable> stop = new ArrayList<>();
+    private TimerWheel timers = new TimerWheel();
+    private final List<TimerWheel.Timer> batch = new ArrayList<>();
+    private final Set<Coroutine> coroutines = new HashSet<>(); // Started and not done yet
+
+    // Blamed for errors the loop raises itself; the last Events block, if any.
+    private Token origin = new Token(TokenType.EVENTS, "Events", null, 0);
+    private boolean running = false;
+    private long frames = 0, steps = 0, dropped = 0;
+
+    EventLoop(Interpreter interpreter, Context context) {
+        if (!(TICK_RATE > 0)) throw new IllegalArgumentException("hyperscript.tickRate must be positive: " + TICK_RATE);
+        this.interpreter = interpreter;
+        this.context = context;
+        interpreter.globals.define("deltaTime", stepSeconds);
+    }
+
+    static boolean isEvent(String name) {
+        switch (name) {
+            case "start": case "update": case "frame": case "stop": return true;
+            default: return false;
+        }
+    }
+
+    // =========================================================================
+    // == SETUP
+    // =========================================================================
+
+    // Adds a handler from an Events block. Handlers for the same event run in
+    // the order they were declared.
+    void on(Token event, HyperScriptCallable handler, Token where) {
+        origin = where;
+        int most = event.lexeme.equals("update") ? 1 : 0;
+        if (handler.arity() > most) {
+            throw new Interpreter.RuntimeError(event, "The '" + event.lexeme + "' event takes " +
+                (most == 0 ? "no arguments." : "at most 1 argument (deltaTime)."));
+        }
+        switch (event.lexeme) {
+            case "start": start.add(handler); break;
+            case "update": update.add(handler); break;
+            case "frame": frame.add(handler); break;
+            case "stop": stop.add(handler); break;
+            default: throw new Interpreter.RuntimeError(event, "Unknown event '" + event.lexeme + "'.");
+        }
+    }
+
+    TimerWheel.Timer after(double seconds, HyperScriptCallable callback) {
+        return timers.schedule(ticks(seconds), 0, callback);
+    }
+
+    TimerWheel.Timer every(double seconds, HyperScriptCallable callback) {
+        long period = Math.max(1, ticks(seconds));
+        return timers.schedule(period, period, callback);
+    }
+
+    void cancel(TimerWheel.Timer timer) {
+        timers.cancel(timer);
+    }
+
+    // Starts 'body' as a coroutine and runs it up to its first wait.
+    Coroutine coroutine(HyperScriptCallable body) {
+        Coroutine coroutine = new Coroutine(interpreter, context, body, origin);
+        coroutines.add(coroutine);
+        resume(coroutine);
+        return coroutine;
+    }
+
+    // Called by 'wait', on the coroutine's thread: wake up in 'seconds'
+    // (0 is the next step), and hand the Interpreter back until then.
+    void sleep(Coroutine coroutine, double seconds) {
+        coroutine.wakeUp = timers.schedule(ticks(seconds), 0, coroutine);
+        coroutine.suspend();
+    }
+
+    void cancel(Coroutine coroutine) {
+        if (coroutine.wakeUp != null) timers.cancel(coroutine.wakeUp);
+        coroutine.cancel();
+        if (coroutine.isDone()) coroutines.remove(coroutine);
+    }
+
+    private void resume(Coroutine coroutine) {
+        coroutine.wakeUp = null;
+        try {
+            coroutine.resume();
+        } finally {
+            if (coroutine.isDone()) coroutines.remove(coroutine);
+        }
+    }
+
+    // Ends the loop after the current frame (stop handlers still run).
+    void stopLoop() {
+        running = false;
+    }
+
+    // Simulation time: steps so far times deltaTime.
+    double elapsed() {
+        return timers.now() / TICK_RATE;
+    }
+
+    private long ticks(double seconds) {
+        if (!(seconds >= 0)) throw new NativeFunction.Failure("Timer delay must be a number of seconds >= 0.");
+        return Math.round(seconds / stepSeconds);
+    }
+
+    private boolean busy() {
+        return !update.isEmpty() || !frame.isEmpty() || timers.size() > 0;
+    }
+
+    // =========================================================================
+    // == THE LOOP
+    // =========================================================================
+
+    // Runs the loop, if the script set anything up. Returns when it's over.
+    void run() {
+        if (start.isEmpty() && stop.isEmpty() && !busy()) return;
+        if (!Thread.currentThread().isVirtual()) {
+            runOnVirtualThread();
+            return;
+        }
+        loop();
+    }
+
+    // Every coroutine wake-up hands the Interpreter to another thread and back.
+    // Between a platform thread and a virtual one that's an OS context switch
+    // each way; between two virtual threads it's a few microseconds. So a
+    // command-line run moves the loop itself onto a virtual thread.
+    private void runOnVirtualThread() {
+        Throwable[] failure = new Throwable[1];
+        Thread thread = Thread.ofVirtual().name("hyperscript-event-loop").start(() -> context.runIn(() -> {
+            try {
+                loop();
+            } catch (Throwable error) {
+                failure[0] = error;
+            }
+        }));
+        boolean interrupted = false;
+        while (true) {
+            try {
+                thread.join();
+                break;
+            } catch (InterruptedException e) {
+                thread.interrupt(); // The loop notices at the end of its frame
+                interrupted = true;
+            }
+        }
+        if (interrupted) Thread.currentThread().interrupt();
+        if (failure[0] instanceof RuntimeException) throw (RuntimeException)failure[0];
+        if (failure[0] instanceof Error) throw (Error)failure[0];
+    }
+
+    private void loop() {
+        running = true;
+        try {
+            dispatch(start, List.of());
+            long last = System.nanoTime();
+            long lag = stepNanos; // The first frame steps straight away
+            while (running && busy()) {
+                int due = 1;
+                if (REALTIME) {
+                    waitUntil(last + stepNanos - lag);
+                    long now = System.nanoTime();
+                    lag += now - last;
+                    last = now;
+                    due = (int)Math.min(lag / stepNanos, MAX_CATCH_UP);
+                    lag -= due * stepNanos;
+                    if (lag >= stepNanos) {
+                        // Too far behind to catch up: let the extra steps go.
+                        dropped += lag / stepNanos;
+                        lag %= stepNanos;
+                    }
+                }
+
+                // --- STAGE 1: FIXED STEPS ---
+                for (int i = 0; i < due && running; i++) step();
+
+                // --- STAGE 2: THIS FRAME'S TIMERS, IN ONE BATCH ---
+                dispatchTimers();
+
+                // --- STAGE 3: ONCE PER FRAME ---
+                dispatch(frame, List.of());
+
+                frames++;
+                if (FRAME_LIMIT > 0 && frames >= FRAME_LIMIT) running = false;
+                if (Thread.currentThread().isInterrupted()) throw new Fuel.Exhausted(origin, "Script interrupted.");
+            }
+            dispatch(stop, List.of());
+        } finally {
+            if (context.diagnostics != null && frames > 0) {
+                context.diagnostics.println("Event loop: " + frames + " frames, " + steps + " steps at " +
+                    TICK_RATE + " Hz, " + dropped + " dropped.");
+            }
+            reset();
+        }
+    }
+
+    // Forgets every handler, timer and coroutine, so the next script starts clean.
+    void reset() {
+        running = false;
+        // Unwind whatever is still suspended, so its virtual thread can end.
+        for (Coroutine coroutine : coroutines.toArray(new Coroutine[0])) {
+            try {
+                coroutine.cancel();
+            } catch (RuntimeException ignored) {
+                // Errors while unwinding a script that's over anyway aren't worth reporting.
+            }
+        }
+        coroutines.clear();
+        start.clear();
+        update.clear();
+        frame.clear();
+        stop.clear();
+        timers = new TimerWheel();
+        batch.clear();
+        frames = steps = dropped = 0;
+    }
+
+    private void step() {
+        long began = RuntimeMetrics.ENABLED ? System.nanoTime() : 0;
+        interpreter.globals.define("deltaTime", stepSeconds); // In case the script wrote over it
+        timers.advance(batch);
+        for (int i = 0; i < update.size(); i++) {
+            HyperScriptCallable handler = update.get(i);
+            interpreter.callBack(handler, handler.arity() == 0 ? List.of() : deltaTimeArgument, origin);
+        }
+        steps++;
+        if (RuntimeMetrics.ENABLED) RuntimeMetrics.systemRan("update", System.nanoTime() - began);
+    }
+
+    private void dispatchTimers() {
+        if (batch.isEmpty()) return;
+        long began = RuntimeMetrics.ENABLED ? System.nanoTime() : 0;
+        for (int i = 0; i < batch.size(); i++) {
+            TimerWheel.Timer timer = batch.get(i);
+            if (timer.cancelled) continue; // Cancelled by an earlier callback in this batch
+            if (timer.callback instanceof Coroutine) {
+                resume((Coroutine)timer.callback);
+                continue;
+            }
+            HyperScriptCallable callback = (HyperScriptCallable)timer.callback;
+            interpreter.callBack(callback, callback.arity() == 0 ? List.of() : List.of(timer), origin);
+        }
+        batch.clear();
+        if (RuntimeMetrics.ENABLED) RuntimeMetrics.systemRan("timers", System.nanoTime() - began);
+    }
+
+    private void dispatch(List<HyperScriptCallable> handlers, List<Object> arguments) {
+        for (int i = 0; i < handlers.size(); i++) {
+            interpreter.callBack(handlers.get(i), arguments, origin);
+        }
+    }
+
+    // Park for most of the wait, spin for the rest.
+    private static void waitUntil(long deadline) {
+        long remaining;
+        while ((remaining = deadline - System.nanoTime()) > SPIN_NANOS) {
+            LockSupport.parkNanos(remaining - SPIN_NANOS);
+            if (Thread.currentThread().isInterrupted()) return;
+        }
+        while (deadline - System.nanoTime() > 0) Thread.onSpinWait();
+    }
+}
@@ -0,0 +1,77 @@
+// In src/main/java/EventNatives.java
+
+// The Flow-side API for the EventLoop: timers and coroutines.
+//
+//   function boom() print "boom" end
+//   after(2, boom)                    // once, 2 seconds of simulation from now
+//   let blink = every(0.5, toggle)    // toggle(timer) may cancel itself
+//   cancel(blink)
+//   let guard = coroutine(patrol)     // patrol() may 'wait 2 seconds' (see Coroutine)
+//   if (finished(guard)) then ... end
+//   if (elapsed() > 60) then stopLoop() end
+//
+// Times are in seconds, rounded to whole steps of deltaTime.
+final class EventNatives {
+    private EventNatives() {}
+
+    static void install(Environment globals) {
+        globals.define("after", new NativeFunction("after", 2, (interpreter, args) -> {
+            return interpreter.events.after(number(args.get(0), "after"), callback(args.get(1), "after"));
+        }));
+
+        globals.define("every", new NativeFunction("every", 2, (interpreter, args) -> {
+            return interpreter.events.every(number(args.get(0), "every"), callback(args.get(1), "every"));
+        }));
+
+        globals.define("cancel", new NativeFunction("cancel", 1, (interpreter, args) -> {
+            if (args.get(0) instanceof TimerWheel.Timer) {
+                interpreter.events.cancel((TimerWheel.Timer)args.get(0));
+            } else if (args.get(0) instanceof Coroutine) {
+                interpreter.events.cancel((Coroutine)args.get(0));
+            } else {
+                throw new NativeFunction.Failure("'cancel' expects a timer or a coroutine.");
+            }
+            return null;
+        }));
+
+        globals.define("coroutine", new NativeFunction("coroutine", 1, (interpreter, args) -> {
+            if (!(args.get(0) instanceof HyperScriptCallable) || ((HyperScriptCallable)args.get(0)).arity() != 0) {
+                throw new NativeFunction.Failure("'coroutine' expects a function with no parameters.");
+            }
+            return interpreter.events.coroutine((HyperScriptCallable)args.get(0));
+        }));
+
+        globals.define("finished", new NativeFunction("finished", 1, (interpreter, args) -> {
+            if (!(args.get(0) instanceof Coroutine)) throw new NativeFunction.Failure("'finished' expects a coroutine.");
+            return ((Coroutine)args.get(0)).isDone();
+        }));
+
+        globals.define("stopLoop", new NativeFunction("stopLoop", 0, (interpreter, args) -> {
+            interpreter.events.stopLoop();
+            return null;
+        }));
+
+        globals.define("elapsed", new NativeFunction("elapsed", 0, (interpreter, args) -> {
+            return interpreter.events.elapsed();
+        }));
+    }
+
+    // =========================================================================
+    // == ARGUMENT HELPERS
+    // =========================================================================
+
+    private static double number(Object value, String function) {
+        if (value instanceof Double) return (double)value;
+        throw new NativeFunction.Failure("'" + function + "' expects a number of seconds.");
+    }
+
+    // Timer callbacks get nothing, or the timer itself.
+    private static HyperScriptCallable callback(Object value, String function) {
+        if (!(value instanceof HyperScriptCallable)) throw new NativeFunction.Failure("'" + function + "' expects a function.");
+        HyperScriptCallable callback = (HyperScriptCallable)value;
+        if (callback.arity() > 1) {
+            throw new NativeFunction.Failure("'" + function + "' callbacks take no arguments, or just the timer.");
+        }
+        return callback;
+    }
+}
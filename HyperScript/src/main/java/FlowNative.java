@@ -0,0 +1,17 @@
+// In src/main/java/FlowNative.java
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+// Marks a static Java method as callable from Flow (see NativeBinding).
+//
+//   @FlowNative("hypot") static double hypotenuse(double x, double y) { ... }
+//
+// Leave the name empty to use the Java method's own name.
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.METHOD)
+@interface FlowNative {
+    String value() default "";
+}
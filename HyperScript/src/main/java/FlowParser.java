@@ -32,6 +32,7 @@ class FlowParser {
             if (isAtEnd()) return null;
 
             if (match(TokenType.FUNCTION)) return function("function");
+            if (match(TokenType.EVENTS)) return eventsBlock();
             if (match(TokenType.VAR)) return varDeclaration();
             return statement();
         } catch (ParseError error) {
@@ -57,6 +58,28 @@ class FlowParser {
         return new Stmt.Function(name, parameters, body);
     }
 
+    // Events
+    //     function start() ... end
+    //     function update(deltaTime) ... end
+    // end
+    private Stmt eventsBlock() {
+        Token keyword = previous();
+        List<Stmt.Function> handlers = new ArrayList<>();
+        while (match(TokenType.EOL));
+        while (!check(TokenType.END) && !isAtEnd()) {
+            consume(TokenType.FUNCTION, "Expect an event handler function in Events block.");
+            Stmt.Function handler = function("event handler");
+            if (!EventLoop.isEvent(handler.name.lexeme)) {
+                // Not fatal: report it and keep parsing the rest of the block.
+                error(handler.name, "Unknown event '" + handler.name.lexeme + "'. Expect " + EventLoop.EVENT_NAMES + ".");
+            }
+            handlers.add(handler);
+            while (match(TokenType.EOL));
+        }
+        consume(TokenType.END, "Expect 'end' after Events block.");
+        return new Stmt.Events(keyword, handlers);
+    }
+
     private Stmt varDeclaration() {
         Token name = consume(TokenType.IDENTIFIER, "Expect variable name.");
         Expr initializer = null;
@@ -73,6 +96,8 @@ class FlowParser {
         // --- THE FIX for Bug #2 ---
         if (match(TokenType.RETURN)) return returnStatement();
         if (match(TokenType.WHILE)) return whileStatement();
+        if (match(TokenType.WAIT)) return waitStatement();
+        if (match(TokenType.YIELD)) return yieldStatement();
         // ...
         return expressionStatement();
     }
@@ -89,14 +114,33 @@ class FlowParser {
         return new Stmt.Return(keyword, value);
     }
 
+    // wait 2 seconds   (the unit is optional; it's always seconds)
+    private Stmt waitStatement() {
+        Token keyword = previous();
+        Expr duration = expression();
+        if (check(TokenType.IDENTIFIER) && (peek().lexeme.equals("seconds") || peek().lexeme.equals("second"))) {
+            advance();
+        }
+        consumeTerminator("Expect newline or ';' after wait time.");
+        return new Stmt.Wait(keyword, duration);
+    }
+
+    // yield   (until the next step)
+    private Stmt yieldStatement() {
+        Token keyword = previous();
+        consumeTerminator("Expect newline or ';' after 'yield'.");
+        return new Stmt.Wait(keyword, null);
+    }
+
     private Stmt whileStatement() {
+        Token keyword = previous();
         consume(TokenType.LEFT_PAREN, "Expect '(' after 'while'.");
         Expr condition = expression();
         consume(TokenType.RIGHT_PAREN, "Expect ')' after condition.");
         consume(TokenType.DO, "Expect 'do' after while.");
         List<Stmt> body = block(TokenType.END);
         consume(TokenType.END, "Expect 'end' after while body.");
-        return new Stmt.While(condition, new Stmt.Block(body));
+        return new Stmt.While(keyword, condition, new Stmt.Block(body));
     }
     
     private Stmt ifStatement() {
@@ -121,8 +165,12 @@ class FlowParser {
     
     private List<Stmt> block(TokenType... terminators) {
         List<Stmt> statements = new ArrayList<>();
+        // Skip blank lines BEFORE looking for the terminator, or the newline left
+        // after a nested block's 'end' hides the 'end' of this one.
+        while (match(TokenType.EOL));
         while (!check(terminators) && !isAtEnd()) {
             statements.add(declaration());
+            while (match(TokenType.EOL));
         }
        return statements;
     }
@@ -372,10 +420,13 @@ class FlowParser {
             switch (peek().type) {
                 case CLASS:
                 case FUNCTION:
+                case EVENTS:
                 case VAR:
                 case FOR:
                 case IF:
                 case WHILE:
+                case WAIT:
+                case YIELD:
                 case PRINT:
                 case RETURN:
                     return;
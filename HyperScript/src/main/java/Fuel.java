@@ -0,0 +1,105 @@
+// In src/main/java/Fuel.java
+
+// A Context's instruction budget.
+//
+//   context.fuel.limit(1_000_000);          // at most a million steps, then stop
+//   int status = context.eval(untrusted);    // 70 if it ran out
+//
+// A step is one loop iteration (counted at the back-edge in visitWhileStmt) or
+// one call (visitCallExpr). Those are the only ways Flow can run for a long
+// time, so counting just them catches every runaway script at almost no cost.
+//
+// The Interpreter keeps the count itself, in a plain field it decrements;
+// only when a step takes it below zero (the chunk it was handed is used up,
+// and one more step wants to run) does it come here, to refill(). That's where:
+//   - a script out of budget is stopped with Fuel.Exhausted, a RuntimeError,
+//     so it's reported (or thrown to an embedder) like any other;
+//   - a script whose thread was interrupted (or, inside a coroutine, the
+//     thread that resumed it) is stopped the same way, so
+//     Future.cancel(true) works on a script stuck in a loop. Without a limit
+//     or a slice the count would never run out, so it's handed out in chunks
+//     of at most CHECK_EVERY steps: even an unlimited script looks at its
+//     interrupt flag every 65536 steps;
+//   - a script that has used up its slice yields its turn (see ScriptScheduler),
+//     then carries on with a fresh slice.
+//
+// Unlimited by default. Not thread-safe, like the Context that owns it.
+final class Fuel {
+    static final long UNLIMITED = Long.MAX_VALUE;
+
+    // The most steps between two visits to refill(), whatever the slice.
+    static final long CHECK_EVERY = 1 << 16;
+
+    // Gives up the current thread's turn, and returns when it may run again.
+    interface Yielder {
+        void yieldTurn();
+    }
+
+    static class Exhausted extends Interpreter.RuntimeError {
+        Exhausted(Token token, String message) {
+            super(token, message);
+        }
+    }
+
+    private final Interpreter interpreter;
+    private long budget = UNLIMITED;    // Steps left AFTER the chunk the interpreter is using now
+    private long slice = UNLIMITED;     // Steps between two yields
+    private long sliceLeft = UNLIMITED; // Steps left in this slice, also AFTER the current chunk
+    private long limit = UNLIMITED;     // What limit() was last given, for the error message
+    private Yielder yielder = null;
+
+    Fuel(Interpreter interpreter) {
+        this.interpreter = interpreter;
+        interpreter.fuel = grant();
+    }
+
+    // At most 'steps' more steps, from now. UNLIMITED lifts the limit.
+    void limit(long steps) {
+        if (steps < 0) throw new IllegalArgumentException("Fuel limit must not be negative: " + steps);
+        if (sliceLeft != UNLIMITED) sliceLeft += Math.max(interpreter.fuel, 0); // The slice carries on
+        limit = steps;
+        budget = steps;
+        interpreter.fuel = grant();
+    }
+
+    // Every 'steps' steps, call the yielder before going on. Null stops yielding.
+    void yieldEvery(long steps, Yielder yielder) {
+        if (steps <= 0) throw new IllegalArgumentException("Fuel slice must be positive: " + steps);
+        if (budget != UNLIMITED) budget += Math.max(interpreter.fuel, 0); // Take back what's left of the current chunk...
+        this.slice = yielder == null ? UNLIMITED : steps;
+        this.sliceLeft = slice;
+        this.yielder = yielder;
+        interpreter.fuel = grant(); // ...and hand out one of the new size.
+    }
+
+    // Steps left in total, including the current chunk. (The count is -1 after
+    // a step that refill() refused.)
+    long remaining() {
+        return budget == UNLIMITED ? UNLIMITED : budget + Math.max(interpreter.fuel, 0);
+    }
+
+    // The next chunk: what's left of the slice, capped by the budget and CHECK_EVERY.
+    private long grant() {
+        long steps = Math.min(Math.min(sliceLeft, budget), CHECK_EVERY);
+        if (budget != UNLIMITED) budget -= steps;
+        if (sliceLeft != UNLIMITED) sliceLeft -= steps;
+        return steps;
+    }
+
+    // Called by the Interpreter when a step finds its chunk used up. Returns
+    // the next chunk, less the step that asked for it.
+    long refill(Token where) {
+        if (budget == 0) {
+            throw new Exhausted(where, "Out of fuel after " + limit + " steps.");
+        }
+        if (sliceLeft == 0) {
+            if (yielder != null) yielder.yieldTurn();
+            sliceLeft = slice;
+        }
+        if (Thread.interrupted() || (interpreter.coroutine != null && interpreter.coroutine.resumerInterrupted())) {
+            budget = 0;
+            throw new Exhausted(where, "Script interrupted.");
+        }
+        return grant() - 1;
+    }
+}
@@ -1,146 +1,306 @@
 // In src/main/java/HyperScript.java
 
 import java.io.IOException;
+import java.io.PrintStream;
+import java.io.UncheckedIOException;
 import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.List;
-import java.util.stream.Collectors;
-import java.util.stream.Stream;
+import java.util.Map;
 
 // In HyperScript.java
 public class HyperScript {
-    static final Interpreter interpreter = new Interpreter(); // One interpreter instance
-    static boolean hadError = false;
-    static boolean hadRuntimeError = false;
+    // The command line's Context: its interpreter, error flags and output.
+    // Everything below runs in Context.current(), which is this one unless an
+    // embedder (or the daemon) entered another.
+    static Context context = commandLine();
+
+    // Script output goes to the buffered stdout sink. The pipeline windows go
+    // there too, unless -Dhyperscript.diagnostics is 'off' or names a file.
+    private static Context commandLine() {
+        String setting = System.getProperty("hyperscript.diagnostics", "stdout");
+        PrintStream diagnostics;
+        if (setting.equals("off")) {
+            diagnostics = null;
+        } else if (setting.equals("stdout")) {
+            diagnostics = Context.stdout();
+        } else {
+            try {
+                diagnostics = new PrintStream(OutputSink.file(Paths.get(setting)), false, StandardCharsets.UTF_8);
+            } catch (IOException error) {
+                System.err.println("Could not open diagnostics file " + setting + ": " + error.getMessage());
+                diagnostics = null;
+            }
+        }
+        return new Context(Context.stdout(), System.err, diagnostics);
+    }
 
     public static void main(String[] args) throws IOException {
         // In main()
-        runProject("project", "Main.hbp");
-        System.out.println("\n--- Next File ---\n");
-        runProject("project", "Clock.hbp");
+        String target = args.length > 0 ? args[0] : "project";
+        if (target.equals("--watch")) {
+            try {
+                WatchMode.run(args.length > 1 ? args[1] : "project");
+            } catch (IOException error) {
+                System.exit(cannotBuild(error)); // Nothing there to watch
+            }
+        } else if (target.equals("--train")) {
+            int status = TrainMode.run(args);
+            if (status != 0) System.exit(status);
+        } else if (target.equals("--bench")) {
+            int status = BenchMode.run(args);
+            if (status != 0) System.exit(status);
+        } else if (target.equals("--diff")) {
+            int status = DiffMode.run(args);
+            if (status != 0) System.exit(status);
+        } else if (target.equals("--daemon")) {
+            Daemon.serve(args.length > 1 ? Paths.get(args[1]) : Daemon.defaultSocket());
+        } else {
+            int status;
+            try {
+                status = run(target);
+            } catch (IOException error) {
+                status = cannotBuild(error);
+            }
+            context.flush();
+            if (status != 0) System.exit(status);
+        }
     }
 
-    // --- The Hunter Method ---
-    private static void runProject(String dir, String entryFile) throws IOException {
-        System.out.println("--- [HyperScript Engine Started] ---");
-        System.out.println("Scanning directory: " + dir);
-
-        // This is a modern Java way to find all files in a directory.
-        List<Path> files;
-        try (Stream<Path> stream = Files.walk(Paths.get(dir))) {
-            files = stream.filter(Files::isRegularFile).collect(Collectors.toList());
+    // Runs a project directory or a single file. Returns the exit status:
+    // 0 on success, 65 for a syntax/type error, 70 for a runtime error.
+    static int run(String target) throws IOException {
+        if (target.endsWith(".hfl") || target.endsWith(".hbp")) {
+            return runFile(target);
         }
+        return runProject(target);
+    }
 
-        System.out.println("Found " + files.size() + " files.");
-        
-        // Find our specific entry point file.
-        Path entryPointPath = Paths.get(dir, entryFile);
+    // Parses and type-checks without running anything. Same exit statuses as run().
+    static int check(String target) throws IOException {
+        Context current = Context.current();
+        Path path = Paths.get(target);
+        if (target.endsWith(".hfl")) {
+            String source = new String(Files.readAllBytes(path), Charset.defaultCharset());
+            PipelineEvents.parseFlow(PipelineEvents.scan(source, target), target);
+        } else if (target.endsWith(".hbp")) {
+            String source = new String(Files.readAllBytes(path), Charset.defaultCharset());
+            PipelineEvents.parseBlueprint(PipelineEvents.scan(source, target), target);
+        } else {
+            try {
+                BuildGraph graph = new BuildGraph(path);
+                BuildGraph.Result result = graph.build();
+                if (current.diagnostics != null) current.diagnostics.println(result);
+                if (!current.hadError) BlueprintSymbols.of(graph.blueprints()).analyze();
+            } catch (IOException error) {
+                return cannotBuild(error);
+            } catch (UncheckedIOException error) {
+                return cannotBuild(error.getCause());
+            }
+        }
+        return current.hadError ? 65 : 0;
+    }
+
+    // --- The Hunter Method ---
+    // The .core file names the entry point; the BuildGraph works out the rest.
+    private static int runProject(String dir) {
+        Context current = Context.current();
+        PrintStream diagnostics = current.diagnostics;
+        if (diagnostics != null) {
+            diagnostics.println("--- [HyperScript Engine Started] ---");
+            diagnostics.println("Project directory: " + dir);
+        }
 
-        if (!files.contains(entryPointPath)) {
-            System.out.println("FATAL: Entry point file not found: " + entryFile);
-            System.exit(1);
+        BuildGraph graph;
+        Path entryPoint;
+        List<Stmt> program;
+        try {
+            graph = new BuildGraph(Paths.get(dir));
+            if (!loadProject(graph)) return 65;
+            entryPoint = graph.entryPoint();
+            program = graph.flowProgram(entryPoint);
+        } catch (IOException error) {
+            return cannotBuild(error);
+        } catch (UncheckedIOException error) {
+            return cannotBuild(error.getCause());
         }
 
-        System.out.println("Executing entry point: " + entryPointPath);
-        runFile(entryPointPath.toString());
+        if (diagnostics != null) diagnostics.println("Executing entry point: " + entryPoint);
+        executeFlow(program, entryPoint.getFileName().toString());
+        return current.hadRuntimeError ? 70 : 0;
     }
 
-    private static void runFile(String path) throws IOException {
+    // A project that can't be built at all: no .core file, no entry point, or a
+    // file that can't be read. Reported as FATAL; the exit status is 66.
+    static int cannotBuild(IOException error) {
+        String message = error instanceof NoSuchFileException
+            ? "File not found: " + error.getMessage()
+            : error.getMessage();
+        Context.current().fatal(message);
+        return 66;
+    }
+
+    // Builds the project and loads every Blueprint into the World.
+    // Returns false if there was a syntax or type error. A project that can't
+    // be built at all throws (see cannotBuild).
+    static boolean loadProject(BuildGraph graph) throws IOException {
+        Context current = Context.current();
+        BuildGraph.Result result = graph.build();
+        if (current.diagnostics != null) current.diagnostics.println(result);
+        if (current.hadError) return false;
+
+        // Index every Blueprint up front, so types resolve across files.
+        Map<Path, List<BlueprintStmt>> blueprints = graph.blueprints();
+        BlueprintSymbols symbols = BlueprintSymbols.of(blueprints);
+        symbols.analyze();
+        if (current.hadError) return false;
+        current.interpreter.world.useSymbols(symbols);
+
+        // The graph already parsed every attached Flow file; hand them over.
+        current.attachments = new AttachmentLoader(graph.projectDir());
+        graph.flowPrograms().forEach(current.attachments::preload);
+
+        for (Map.Entry<Path, List<BlueprintStmt>> blueprint : blueprints.entrySet()) {
+            loadBlueprint(blueprint.getValue(), blueprint.getKey().getFileName().toString());
+        }
+        return !current.hadError;
+    }
+
+    private static int runFile(String path) throws IOException {
+        Context current = Context.current();
         byte[] bytes = Files.readAllBytes(Paths.get(path));
         
         // --- THE DISPATCHER ---
         if (path.endsWith(".hfl")) {
-            runFlow(new String(bytes, Charset.defaultCharset()));
+            runFlow(new String(bytes, Charset.defaultCharset()), Paths.get(path).getFileName().toString());
         } else if (path.endsWith(".hbp")) {
-            runBlueprint(new String(bytes, Charset.defaultCharset()));
+            runBlueprint(new String(bytes, Charset.defaultCharset()), Paths.get(path).getFileName().toString());
         }
 
         // Check if a syntax error was found and exit.
-        if (hadError) System.exit(65);
+        if (current.hadError) return 65;
         // Check if a runtime error was found and exit.
-        if (hadRuntimeError) System.exit(70);
+        if (current.hadRuntimeError) return 70;
+        return 0;
     }
 
     // =========================================================================
     // == FLOW PIPELINE
     // =========================================================================
-    private static void runFlow(String source) {
+    // Every stage goes through PipelineEvents, so it shows up in JFR recordings.
+    private static void runFlow(String source, String fileName) {
+        Context current = Context.current();
         // --- STAGE 1: LEXER ---
-        Scanner scanner = new Scanner(source);
-        List<Token> tokens = scanner.scanTokens();
+        List<Token> tokens = PipelineEvents.scan(source, fileName);
         
         // --- PIPE WINDOW 1: THE TOKEN STREAM ---
-        System.out.println("--- Tokens ---");
-        for (Token token : tokens) {
-            System.out.println(token);
+        // (Only when someone's looking: formatting every token isn't free.)
+        PrintStream diagnostics = current.diagnostics;
+        if (diagnostics != null) {
+            diagnostics.println("--- Tokens ---");
+            for (Token token : tokens) {
+                diagnostics.println(token);
+            }
         }
         
         // --- STAGE 2: PARSER ---
-        FlowParser parser = new FlowParser(tokens);
-        List<Stmt> statements = parser.parse();
+        List<Stmt> statements = PipelineEvents.parseFlow(tokens, fileName);
 
         // Stop if there was a syntax error.
-        if (hadError) return;
+        if (current.hadError) return;
 
         // --- PIPE WINDOW 2: THE AST ---
-        System.out.println("\n--- AST ---");
-        System.out.println(new AstPrinter().print(statements));
+        if (diagnostics != null) {
+            diagnostics.println("\n--- AST ---");
+            diagnostics.println(new AstPrinter().print(statements));
+        }
 
+        executeFlow(statements, fileName);
+    }
+
+    static void executeFlow(List<Stmt> statements, String fileName) {
+        Context current = Context.current();
         // --- STAGE 3: INTERPRETER ---
-        System.out.println("\n--- Execution ---");
-        interpreter.interpret(statements);
+        if (current.diagnostics != null) current.diagnostics.println("\n--- Execution ---");
+        PipelineEvents.execute(current.interpreter, statements, fileName);
+        current.flush();
     }
     
-    private static void runBlueprint(String source) {
+    private static void runBlueprint(String source, String fileName) {
+        Context current = Context.current();
         // --- STAGE 1: LEXER ---
-        Scanner scanner = new Scanner(source);
-        List<Token> tokens = scanner.scanTokens();
+        List<Token> tokens = PipelineEvents.scan(source, fileName);
 
         // --- PIPE WINDOW 1: THE TOKEN STREAM ---
-        System.out.println("--- Blueprint Tokens ---");
-        for (Token token : tokens) {
-            System.out.println(token);
+        PrintStream diagnostics = current.diagnostics;
+        if (diagnostics != null) {
+            diagnostics.println("--- Blueprint Tokens ---");
+            for (Token token : tokens) {
+                diagnostics.println(token);
+            }
         }
 
         // --- STAGE 2: PARSER ---
-        BlueprintParser parser = new BlueprintParser(tokens);
-        List<BlueprintStmt> statements = parser.parse();
+        List<BlueprintStmt> statements = PipelineEvents.parseBlueprint(tokens, fileName);
 
         // Stop if there was a syntax error.
-        if (hadError) return;
+        if (current.hadError) return;
 
         // --- PIPE WINDOW 2: THE AST ---
-        System.out.println("\n--- Blueprint AST ---");
-        System.out.println(new BlueprintAstPrinter().print(statements));
+        if (diagnostics != null) {
+            diagnostics.println("\n--- Blueprint AST ---");
+            diagnostics.println(new BlueprintAstPrinter().print(statements));
+        }
+
+        loadBlueprint(statements, fileName);
+    }
+
+    private static void loadBlueprint(List<BlueprintStmt> statements, String fileName) {
+        Context current = Context.current();
+        // --- STAGE 3: ECS LOWERING ---
+        List<Archetype> archetypes = PipelineEvents.lower(current.interpreter.world, statements, fileName);
+
+        // --- PIPE WINDOW 3: THE ARCHETYPE LAYOUTS ---
+        PrintStream diagnostics = current.diagnostics;
+        if (diagnostics != null) {
+            diagnostics.println("\n--- Archetypes ---");
+            for (Archetype archetype : archetypes) {
+                diagnostics.println(archetype.name + " " + archetype.columnNames());
+                for (SystemBinding system : archetype.systems()) {
+                    diagnostics.println("  " + system);
+                }
+            }
+        }
+
+        // --- STAGE 4: ATTACHMENTS ---
+        if (current.attachments != null) {
+            int bound = current.attachments.bindAll(archetypes);
+            if (diagnostics != null) {
+                diagnostics.println("Bound " + bound + " systems from " + current.attachments.uniqueFiles() + " unique Flow files.");
+            }
+        }
     }
     
     // The old, simple error reporter (still useful for the Scanner)
     static void error(int line, String message) {
-        report(line, "", message);
+        Context.current().report(line, "", message);
     }
 
     // --- THE FIX ---
     // The new, powerful, token-aware error reporter that the Parser needs.
     static void error(Token token, String message) {
         if (token.type == TokenType.EOF) {
-            report(token.line, " at end", message);
+            Context.current().report(token.line, " at end", message);
         } else {
-            report(token.line, " at '" + token.lexeme + "'", message);
+            Context.current().report(token.line, " at '" + token.lexeme + "'", message);
         }
     }
 
     static void runtimeError(Interpreter.RuntimeError error) {
-        System.err.println(error.getMessage() + "\n[line " + error.token.line + "]");
-        hadRuntimeError = true;
-    }
-
-    private static void report(int line, String where, String message) {
-        // Using System.err to separate error messages from normal output.
-        System.err.println(
-            "[line " + line + "] Error" + where + ": " + message);
-        hadError = true;
+        Context.current().runtimeError(error);
     }
 }
-
@@ -0,0 +1,157 @@
+// In src/main/java/HyperScriptEngine.java
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import javax.script.AbstractScriptEngine;
+import javax.script.Bindings;
+import javax.script.Compilable;
+import javax.script.CompiledScript;
+import javax.script.ScriptContext;
+import javax.script.ScriptEngine;
+import javax.script.ScriptEngineFactory;
+import javax.script.ScriptException;
+import javax.script.SimpleBindings;
+
+// The JSR-223 face of HyperScript Flow, for hosts that speak javax.script:
+//
+//   ScriptEngine engine = new ScriptEngineManager().getEngineByName("hyperscript");
+//   CompiledScript rule = ((Compilable)engine).compile("return price * 2");
+//   engine.put("price", 21);
+//   rule.eval();   // 42.0
+//
+// Every eval runs a PreparedScript in a fresh Context. The GLOBAL and ENGINE
+// scope bindings go in as globals, and the script's globals are copied back
+// into the ENGINE scope afterwards (natives excluded).
+public class HyperScriptEngine extends AbstractScriptEngine implements Compilable {
+    private final ScriptEngineFactory factory;
+
+    HyperScriptEngine(ScriptEngineFactory factory) {
+        this.factory = factory;
+    }
+
+    @Override
+    public Object eval(String script, ScriptContext context) throws ScriptException {
+        return compile(script).eval(context);
+    }
+
+    @Override
+    public Object eval(Reader reader, ScriptContext context) throws ScriptException {
+        return eval(read(reader), context);
+    }
+
+    @Override
+    public CompiledScript compile(String script) throws ScriptException {
+        try {
+            return new Compiled(PreparedScript.compile(script));
+        } catch (PreparedScript.CompileError error) {
+            throw new ScriptException(error.getMessage());
+        }
+    }
+
+    @Override
+    public CompiledScript compile(Reader reader) throws ScriptException {
+        return compile(read(reader));
+    }
+
+    @Override
+    public Bindings createBindings() {
+        return new SimpleBindings();
+    }
+
+    @Override
+    public ScriptEngineFactory getFactory() {
+        return factory;
+    }
+
+    private static String read(Reader reader) throws ScriptException {
+        StringBuilder source = new StringBuilder();
+        char[] buffer = new char[8192];
+        try {
+            int read;
+            while ((read = reader.read(buffer)) != -1) source.append(buffer, 0, read);
+        } catch (IOException error) {
+            throw new ScriptException(error);
+        }
+        return source.toString();
+    }
+
+    // =========================================================================
+    // == COMPILED SCRIPTS
+    // =========================================================================
+
+    private class Compiled extends CompiledScript {
+        private final PreparedScript script;
+
+        Compiled(PreparedScript script) {
+            this.script = script;
+        }
+
+        @Override
+        public Object eval(ScriptContext scriptContext) throws ScriptException {
+            PrintStream out = printStream(scriptContext.getWriter());
+            PrintStream err = printStream(scriptContext.getErrorWriter());
+            Context context = new Context(out, err);
+
+            // Engine scope wins over global scope, as the spec asks.
+            Map<String, Object> inputs = new HashMap<>();
+            Bindings global = scriptContext.getBindings(ScriptContext.GLOBAL_SCOPE);
+            if (global != null) inputs.putAll(global);
+            Bindings engine = scriptContext.getBindings(ScriptContext.ENGINE_SCOPE);
+            if (engine != null) inputs.putAll(engine);
+            inputs.remove(ScriptEngine.FILENAME); // javax.script bookkeeping, not a variable
+
+            try {
+                Object result = script.run(context, inputs);
+                if (engine != null) {
+                    context.interpreter.globals.forEach((name, value) -> {
+                        if (!(value instanceof NativeFunction)) engine.put(name, value);
+                    });
+                }
+                return result;
+            } catch (Interpreter.RuntimeError error) {
+                throw new ScriptException(error.getMessage(), null, error.token.line);
+            } finally {
+                out.flush();
+                err.flush();
+            }
+        }
+
+        @Override
+        public ScriptEngine getEngine() {
+            return HyperScriptEngine.this;
+        }
+    }
+
+    // The Context prints to a PrintStream; javax.script hands us Writers.
+    private static PrintStream printStream(Writer writer) {
+        OutputStream bytes = new OutputStream() {
+            private final ByteArrayOutputStream pending = new ByteArrayOutputStream();
+
+            @Override
+            public void write(int b) {
+                pending.write(b);
+            }
+
+            @Override
+            public void write(byte[] buffer, int offset, int length) {
+                pending.write(buffer, offset, length);
+            }
+
+            @Override
+            public void flush() throws IOException {
+                // PrintStream encodes a whole print at a time, so no UTF-8 sequence is split.
+                writer.write(pending.toString(StandardCharsets.UTF_8));
+                pending.reset();
+                writer.flush();
+            }
+        };
+        return new PrintStream(bytes, true, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,87 @@
+// In src/main/java/HyperScriptEngineFactory.java
+
+import java.util.List;
+import javax.script.ScriptEngine;
+import javax.script.ScriptEngineFactory;
+
+// Registered in META-INF/services, so ScriptEngineManager finds HyperScript by
+// the name "hyperscript" (or "flow"), or by the .hfl extension.
+public class HyperScriptEngineFactory implements ScriptEngineFactory {
+    private static final List<String> NAMES = List.of("hyperscript", "flow");
+    private static final List<String> EXTENSIONS = List.of("hfl");
+
+    public HyperScriptEngineFactory() {}
+
+    @Override
+    public String getEngineName() {
+        return "HyperScript";
+    }
+
+    @Override
+    public String getEngineVersion() {
+        return "0.1";
+    }
+
+    @Override
+    public List<String> getExtensions() {
+        return EXTENSIONS;
+    }
+
+    @Override
+    public List<String> getMimeTypes() {
+        return List.of();
+    }
+
+    @Override
+    public List<String> getNames() {
+        return NAMES;
+    }
+
+    @Override
+    public String getLanguageName() {
+        return "HyperScript Flow";
+    }
+
+    @Override
+    public String getLanguageVersion() {
+        return "0.1";
+    }
+
+    @Override
+    public Object getParameter(String key) {
+        switch (key) {
+            case ScriptEngine.ENGINE:           return getEngineName();
+            case ScriptEngine.ENGINE_VERSION:   return getEngineVersion();
+            case ScriptEngine.NAME:             return NAMES.get(0);
+            case ScriptEngine.LANGUAGE:         return getLanguageName();
+            case ScriptEngine.LANGUAGE_VERSION: return getLanguageVersion();
+            // Each eval gets its own Context, but the engine's Bindings are a
+            // plain map, so a single engine is not safe to share across threads.
+            case "THREADING":                   return null;
+            default:                            return null;
+        }
+    }
+
+    // Flow has no methods; the closest thing is passing the object first.
+    @Override
+    public String getMethodCallSyntax(String object, String method, String... arguments) {
+        StringBuilder call = new StringBuilder(method).append('(').append(object);
+        for (String argument : arguments) call.append(", ").append(argument);
+        return call.append(')').toString();
+    }
+
+    @Override
+    public String getOutputStatement(String toDisplay) {
+        return "print \"" + toDisplay.replace("\"", "") + "\"";
+    }
+
+    @Override
+    public String getProgram(String... statements) {
+        return String.join("\n", statements);
+    }
+
+    @Override
+    public ScriptEngine getScriptEngine() {
+        return new HyperScriptEngine(this);
+    }
+}
@@ -7,6 +7,10 @@ class HyperScriptFunction implements HyperScriptCallable {
         this.declaration = declaration;
     }
 
+    String name() {
+        return declaration.name.lexeme;
+    }
+
     @Override
     public int arity() {
         return declaration.params.size();
@@ -15,8 +19,9 @@ class HyperScriptFunction implements HyperScriptCallable {
     // In HyperScriptFunction.java
     @Override
     public Object call(Interpreter interpreter, List<Object> arguments) {
+        if (RuntimeMetrics.ENABLED) RuntimeMetrics.FRAMES.increment();
         // Create a new environment for the function's scope.
-        Environment environment = new Environment(Interpreter.globals); // Or a more complex closure environment
+        Environment environment = new Environment(interpreter.globals); // Or a more complex closure environment
         for (int i = 0; i < declaration.params.size(); i++) {
             environment.define(declaration.params.get(i).lexeme, arguments.get(i));
         }
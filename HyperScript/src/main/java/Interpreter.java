@@ -7,11 +7,43 @@ import java.util.List;
 
 class Interpreter implements Expr.Visitor<Object>, Stmt.Visitor<Void> {
 
-    // The environment for storing variables.
-    public final static Environment globals = new Environment();
+    // The environment for storing variables. One per Interpreter, so every
+    // Context has its own globals.
+    final Environment globals = new Environment();
     private Environment environment = globals;
 
+    // The ECS side of the program: archetypes and entities built from Blueprints.
+    final World world = new World();
+
+    // Where 'print' goes and where runtime errors are reported.
+    private final Context context;
+
+    // Steps left before Fuel.refill() has to be asked for more (see Fuel).
+    // Counted down at every loop back-edge and every call.
+    long fuel = Fuel.CHECK_EVERY;
+
+    // Which Flow function and line we're in, for the sampling profiler.
+    // Null (and never touched) unless -Dhyperscript.profile is set.
+    // Swapped, like 'environment', when a coroutine takes over (see Coroutine).
+    private FlowProfiler.Stack profile = FlowProfiler.ENABLED ? new FlowProfiler.Stack() : null;
+
+    // The frame loop: Events handlers, timers and 'deltaTime'. Runs once the top level is done.
+    final EventLoop events;
+
+    // The coroutine running Flow code right now, or null for the script itself.
+    Coroutine coroutine = null;
+
+    Interpreter(Context context) {
+        this.context = context;
+        WorldNatives.install(globals);
+        EventNatives.install(globals);
+        ChannelNatives.install(globals);
+        NativeBinding.bindAll(globals, MathNatives.class);
+        this.events = new EventLoop(this, context);
+    }
+
     void interpret(List<Stmt> statements) {
+        if (FlowProfiler.ENABLED) profile.enter(FlowProfiler.ROOT);
         try {
             // --- PASS 1: Find all function declarations first. ---
             for (Stmt statement : statements) {
@@ -26,11 +58,47 @@ class Interpreter implements Expr.Visitor<Object>, Stmt.Visitor<Void> {
                     execute(statement);
                 }
             }
+
+            // --- PASS 3: The frame loop, if the script set one up. ---
+            events.run();
         } catch (RuntimeError error) {
-            HyperScript.runtimeError(error);
+            context.runtimeError(error);
+        } finally {
+            events.reset();
+            if (FlowProfiler.ENABLED) profile.exit();
         }
     }
 
+    // Like interpret(), but for embedders (see PreparedScript): runtime errors are
+    // thrown to the caller, and the script's result is returned. That's the value
+    // of a top-level 'return', or else of the last statement if it's an expression.
+    Object run(List<Stmt> statements) {
+        for (Stmt statement : statements) {
+            if (statement instanceof Stmt.Function) execute(statement);
+        }
+
+        Object result = null;
+        if (FlowProfiler.ENABLED) profile.enter(FlowProfiler.ROOT);
+        try {
+            for (Stmt statement : statements) {
+                if (statement instanceof Stmt.Function) continue;
+                if (statement instanceof Stmt.Expression) {
+                    result = evaluate(((Stmt.Expression)statement).expression);
+                } else {
+                    execute(statement);
+                    result = null;
+                }
+            }
+            events.run();
+        } catch (Return returnValue) {
+            return returnValue.value;
+        } finally {
+            events.reset();
+            if (FlowProfiler.ENABLED) profile.exit();
+        }
+        return result;
+    }
+
     @Override
     public Void visitFunctionStmt(Stmt.Function stmt) {
         // A function declaration just puts the function object into the environment.
@@ -61,9 +129,63 @@ class Interpreter implements Expr.Visitor<Object>, Stmt.Visitor<Void> {
                 arguments.size() + ".");
         }
 
-        return function.call(this, arguments);
+        if (--fuel < 0) fuel = context.fuel.refill(expr.paren);
+
+        // While JFR is recording, slow calls become events (see PipelineEvents).
+        PipelineEvents.CallEvent event = null;
+        long start = 0;
+        if (PipelineEvents.recordingCalls()) {
+            event = new PipelineEvents.CallEvent();
+            start = System.nanoTime();
+            event.begin();
+        }
+        if (RuntimeMetrics.ENABLED) RuntimeMetrics.CALLS.increment();
+        if (FlowProfiler.ENABLED) {
+            profile.line(expr.paren.line);
+            profile.enter(function);
+        }
+        try {
+            return function.call(this, arguments);
+        } catch (NativeFunction.Failure failure) {
+            throw new RuntimeError(expr.paren, failure.getMessage());
+        } finally {
+            if (FlowProfiler.ENABLED) profile.exit();
+            if (event != null) PipelineEvents.callEnded(event, start, function, expr.paren.line);
+        }
     }
     
+    // Calls a function for the runtime rather than for a call expression: event
+    // handlers and timers (see EventLoop). Counts as a step, like any call.
+    Object callBack(HyperScriptCallable function, List<Object> arguments, Token where) {
+        if (--fuel < 0) fuel = context.fuel.refill(where);
+        if (RuntimeMetrics.ENABLED) RuntimeMetrics.CALLS.increment();
+        if (FlowProfiler.ENABLED) profile.enter(function);
+        try {
+            return function.call(this, arguments);
+        } catch (NativeFunction.Failure failure) {
+            throw new RuntimeError(where, failure.getMessage());
+        } finally {
+            if (FlowProfiler.ENABLED) profile.exit();
+        }
+    }
+
+    // A coroutine's handoff swaps these in and out (see Coroutine.resume).
+    Environment swapEnvironment(Environment next) {
+        Environment previous = environment;
+        environment = next;
+        return previous;
+    }
+
+    FlowProfiler.Stack swapProfile(FlowProfiler.Stack next) {
+        FlowProfiler.Stack previous = profile;
+        profile = next;
+        if (FlowProfiler.ENABLED) {
+            previous.pause(true);
+            next.pause(false);
+        }
+        return previous;
+    }
+
     // --- THE UPGRADE: visitBlockStmt ---
     @Override
     public Void visitBlockStmt(Stmt.Block stmt) {
@@ -98,6 +220,7 @@ class Interpreter implements Expr.Visitor<Object>, Stmt.Visitor<Void> {
 
     @Override
     public Object visitAssignExpr(Expr.Assign expr) {
+        if (FlowProfiler.ENABLED) profile.line(expr.name.line);
         Object value = evaluate(expr.value);
         environment.assign(expr.name, value);
         return value;
@@ -199,12 +322,15 @@ class Interpreter implements Expr.Visitor<Object>, Stmt.Visitor<Void> {
     @Override
     public Void visitPrintStmt(Stmt.Print stmt) {
         Object value = evaluate(stmt.expression);
-        System.out.println(stringify(value));
+        String text = stringify(value);
+        if (RuntimeMetrics.ENABLED) RuntimeMetrics.printed(text);
+        context.out.println(text);
         return null;
     }
     
     @Override
     public Void visitVarStmt(Stmt.Var stmt) {
+        if (FlowProfiler.ENABLED) profile.line(stmt.name.line);
         Object value = null;
         if (stmt.initializer != null) {
             value = evaluate(stmt.initializer);
@@ -219,10 +345,43 @@ class Interpreter implements Expr.Visitor<Object>, Stmt.Visitor<Void> {
     public Void visitWhileStmt(Stmt.While stmt) {
         while (isTruthy(evaluate(stmt.condition))) {
             execute(stmt.body);
+            if (--fuel < 0) fuel = context.fuel.refill(stmt.keyword);
         }
         return null;
     }
     
+    // An Events block doesn't run anything yet: it hands its handlers to the
+    // EventLoop, which calls them once the top level is done.
+    @Override
+    public Void visitEventsStmt(Stmt.Events stmt) {
+        for (Stmt.Function handler : stmt.handlers) {
+            events.on(handler.name, new HyperScriptFunction(handler), stmt.keyword);
+        }
+        return null;
+    }
+
+    // 'wait' suspends the running coroutine; the EventLoop wakes it up again.
+    // The script itself and the Events handlers can't wait: that would stall
+    // the whole loop, which is exactly what coroutines are for.
+    @Override
+    public Void visitWaitStmt(Stmt.Wait stmt) {
+        if (coroutine == null) {
+            throw new RuntimeError(stmt.keyword, "Can only '" + stmt.keyword.lexeme +
+                "' inside a coroutine. Start one with coroutine(function).");
+        }
+        double seconds = 0;
+        if (stmt.duration != null) {
+            Object duration = evaluate(stmt.duration);
+            if (!(duration instanceof Double) || !((double)duration >= 0)) {
+                throw new RuntimeError(stmt.keyword, "Wait time must be a number of seconds >= 0.");
+            }
+            seconds = (double)duration;
+        }
+        if (FlowProfiler.ENABLED) profile.line(stmt.keyword.line);
+        events.sleep(coroutine, seconds);
+        return null;
+    }
+
     @Override
     public Void visitIfStmt(Stmt.If stmt) {
         if (isTruthy(evaluate(stmt.condition))) {
@@ -264,6 +423,7 @@ class Interpreter implements Expr.Visitor<Object>, Stmt.Visitor<Void> {
     // Add this method to Interpreter.java
     @Override
     public Void visitReturnStmt(Stmt.Return stmt) {
+        if (FlowProfiler.ENABLED) profile.line(stmt.keyword.line);
         Object value = null;
         if (stmt.value != null) {
             value = evaluate(stmt.value);
@@ -274,7 +434,10 @@ class Interpreter implements Expr.Visitor<Object>, Stmt.Visitor<Void> {
 
     // --- Helper Methods ---
     private Object evaluate(Expr expr) { return expr.accept(this); }
-    private void execute(Stmt stmt) { stmt.accept(this); }
+    private void execute(Stmt stmt) {
+        if (RuntimeMetrics.ENABLED) RuntimeMetrics.STATEMENTS.increment();
+        stmt.accept(this);
+    }
     private boolean isTruthy(Object object) {
         if (object == null) return false;
         if (object instanceof Boolean) return (boolean)object;
@@ -311,6 +474,7 @@ class Interpreter implements Expr.Visitor<Object>, Stmt.Visitor<Void> {
         RuntimeError(Token token, String message) {
             super(message);
             this.token = token;
+            if (RuntimeMetrics.ENABLED) RuntimeMetrics.RUNTIME_ERRORS.increment();
         }
     }
 }
@@ -0,0 +1,16 @@
+// In src/main/java/InterpreterMetricsMXBean.java
+
+// The interpreter's counters, summed over every Context in this JVM.
+// Published as com.hypertech.hyperscript:type=Interpreter (see RuntimeMetrics).
+// (JMX only introspects public interfaces, hence the 'public'.)
+public interface InterpreterMetricsMXBean {
+    long getStatementsExecuted();
+    long getCalls();              // Flow and native
+    long getFramesCreated();      // Flow function calls only
+    long getEnvironmentsCreated();
+    long getRuntimeErrors();
+    long getPrintBytes();
+
+    // Zeroes every counter, e.g. before measuring one phase of a run.
+    void reset();
+}
@@ -0,0 +1,130 @@
+// In src/main/java/LooseQuadtreeIndex.java
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+
+// A loose quadtree: every node accepts entries from an area TWICE its own size.
+// That slack is the point. An entity that wiggles around a node boundary stays
+// in its node and only has its coordinates updated, instead of being pulled out
+// and re-inserted every frame. Handles clustered entities better than the grid.
+class LooseQuadtreeIndex extends SpatialIndex {
+    static final double DEFAULT_HALF_SIZE = 65536.0;
+    private static final double LOOSENESS = 2.0;
+    private static final int NODE_CAPACITY = 8;
+    private static final int MAX_DEPTH = 16;
+
+    private static class Node extends Bucket {
+        final double centerX, centerY, half;
+        final int depth;
+        Node[] children; // null for a leaf
+
+        Node(double centerX, double centerY, double half, int depth) {
+            this.centerX = centerX;
+            this.centerY = centerY;
+            this.half = half;
+            this.depth = depth;
+        }
+
+        // The root is special: it takes everything, even points outside the world bounds.
+        boolean looseContains(double x, double y) {
+            if (depth == 0) return true;
+            double loose = half * LOOSENESS;
+            return Math.abs(x - centerX) <= loose && Math.abs(y - centerY) <= loose;
+        }
+
+        boolean looseOverlaps(double minX, double minY, double maxX, double maxY) {
+            if (depth == 0) return true;
+            double loose = half * LOOSENESS;
+            return maxX >= centerX - loose && minX <= centerX + loose
+                && maxY >= centerY - loose && minY <= centerY + loose;
+        }
+
+        Node childFor(double x, double y) {
+            int index = (x >= centerX ? 1 : 0) + (y >= centerY ? 2 : 0);
+            return children[index];
+        }
+    }
+
+    private final Node root;
+
+    LooseQuadtreeIndex(double halfSize) {
+        this.root = new Node(0, 0, halfSize, 0);
+    }
+
+    @Override
+    String name() {
+        return "quadtree";
+    }
+
+    @Override
+    void place(Entry entry) {
+        insert(root, entry);
+    }
+
+    // Walks down by quadrant for as long as the child would still (loosely) contain the point.
+    private void insert(Node start, Entry entry) {
+        Node node = start;
+        while (node.children != null) {
+            Node child = node.childFor(entry.x, entry.y);
+            if (!child.looseContains(entry.x, entry.y)) break;
+            node = child;
+        }
+        node.add(entry);
+        if (node.children == null && node.entries.size() > NODE_CAPACITY && node.depth < MAX_DEPTH) {
+            split(node);
+        }
+    }
+
+    private void split(Node node) {
+        double quarter = node.half / 2;
+        node.children = new Node[] {
+            new Node(node.centerX - quarter, node.centerY - quarter, quarter, node.depth + 1),
+            new Node(node.centerX + quarter, node.centerY - quarter, quarter, node.depth + 1),
+            new Node(node.centerX - quarter, node.centerY + quarter, quarter, node.depth + 1),
+            new Node(node.centerX + quarter, node.centerY + quarter, quarter, node.depth + 1),
+        };
+
+        // Push down whatever fits into a child; the rest stays here.
+        Entry[] current = node.entries.toArray(new Entry[0]);
+        for (Entry entry : current) {
+            Node child = node.childFor(entry.x, entry.y);
+            if (child.looseContains(entry.x, entry.y)) {
+                node.remove(entry);
+                child.add(entry);
+            }
+        }
+    }
+
+    @Override
+    void moved(Entry entry) {
+        Node node = (Node)entry.bucket;
+        // --- The cheap path: still inside the loose bounds. ---
+        if (node.looseContains(entry.x, entry.y)) return;
+
+        node.remove(entry);
+        insert(root, entry);
+    }
+
+    @Override
+    void removed(Entry entry) {
+        entry.bucket.remove(entry);
+    }
+
+    @Override
+    void collect(double minX, double minY, double maxX, double maxY, List<Entry> out) {
+        Deque<Node> stack = new ArrayDeque<>();
+        stack.push(root);
+        while (!stack.isEmpty()) {
+            Node node = stack.pop();
+            if (!node.looseOverlaps(minX, minY, maxX, maxY)) continue;
+
+            for (Entry entry : node.entries) {
+                if (entry.x >= minX && entry.x <= maxX && entry.y >= minY && entry.y <= maxY) out.add(entry);
+            }
+            if (node.children != null) {
+                for (Node child : node.children) stack.push(child);
+            }
+        }
+    }
+}
@@ -0,0 +1,54 @@
+// In src/main/java/MathNatives.java
+
+import java.util.concurrent.ThreadLocalRandom;
+
+// Plain math for Flow scripts, bound through NativeBinding.
+//
+//   let speed = sqrt(vx * vx + vy * vy)
+//   let angle = atan2(vy, vx)
+//   let t = clamp(t, 0, 1)
+final class MathNatives {
+    private MathNatives() {}
+
+    @FlowNative static double sqrt(double x)                { return Math.sqrt(x); }
+    @FlowNative static double abs(double x)                 { return Math.abs(x); }
+    @FlowNative static double floor(double x)               { return Math.floor(x); }
+    @FlowNative static double ceil(double x)                { return Math.ceil(x); }
+    @FlowNative static double sin(double x)                 { return Math.sin(x); }
+    @FlowNative static double cos(double x)                 { return Math.cos(x); }
+    @FlowNative static double atan2(double y, double x)     { return Math.atan2(y, x); }
+    @FlowNative static double hypot(double x, double y)     { return Math.hypot(x, y); }
+    @FlowNative static double min(double a, double b)       { return Math.min(a, b); }
+    @FlowNative static double max(double a, double b)       { return Math.max(a, b); }
+
+    // Halves round up, as in most languages: round(2.5) is 3, round(-2.5) is -2.
+    // Same as floor(x + 0.5), but that addition itself rounds, which gets
+    // 0.49999999999999994 and odd numbers past 2^52 wrong.
+    @FlowNative
+    static double round(double x) {
+        double down = Math.floor(x);
+        return x - down >= 0.5 ? down + 1 : down;
+    }
+
+    @FlowNative
+    static double clamp(double value, double low, double high) {
+        return Math.max(low, Math.min(high, value));
+    }
+
+    @FlowNative
+    static double lerp(double from, double to, double t) {
+        return from + (to - from) * t;
+    }
+
+    // A whole number in [0, bound).
+    @FlowNative
+    static long randomInt(long bound) {
+        return ThreadLocalRandom.current().nextLong(bound);
+    }
+
+    // Seconds since some fixed point; only differences mean anything.
+    @FlowNative
+    static double clock() {
+        return System.nanoTime() / 1e9;
+    }
+}
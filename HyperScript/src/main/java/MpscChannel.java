@@ -0,0 +1,105 @@
+// In src/main/java/MpscChannel.java
+
+import java.util.List;
+
+// A Channel for any number of senders and ONE receiver.
+//
+// A sender claims the next index with a CAS, then fills that slot. Between
+// the two, the slot is claimed but still empty; the receiver tells that apart
+// from "nothing sent" by checking the producer index, and spins the few
+// nanoseconds until the value lands. It never waits on a sender any longer
+// than that, and never locks.
+//
+// Senders cache how far they may go ('limit') in a slot of their own, so a
+// busy channel doesn't have them all reading the receiver's index line.
+final class MpscChannel extends Channel {
+    private static final int PRODUCER = PAD;
+    private static final int LIMIT = 2 * PAD;
+    private static final int CONSUMER = 3 * PAD;
+
+    private final long[] indices = new long[4 * PAD];
+
+    MpscChannel(String name, int capacity) {
+        super(name, capacity);
+        INDEX.setRelease(indices, LIMIT, (long)this.capacity);
+    }
+
+    @Override
+    boolean offer(Object value) {
+        long producer = claim();
+        if (producer < 0) return false;
+        publish(producer, value);
+        return true;
+    }
+
+    // The two halves of offer(), apart so tests can stop a sender between them.
+
+    // Claims the next index, or returns -1 if the channel is full.
+    long claim() {
+        long producer;
+        do {
+            producer = (long)INDEX.getVolatile(indices, PRODUCER);
+            long limit = (long)INDEX.getAcquire(indices, LIMIT);
+            if (producer >= limit) {
+                limit = (long)INDEX.getAcquire(indices, CONSUMER) + capacity;
+                if (producer >= limit) return -1;
+                INDEX.setRelease(indices, LIMIT, limit); // Racy, but a stale limit only costs a re-check
+            }
+        } while (!INDEX.compareAndSet(indices, PRODUCER, producer, producer + 1));
+        return producer;
+    }
+
+    // Fills a slot claim() handed out.
+    void publish(long producer, Object value) {
+        ELEMENT.setRelease(buffer, (int)(producer & mask), value);
+        wakeConsumer(); // The CAS in claim() was our fence; see Channel.wakeConsumer
+    }
+
+    @Override
+    Object poll() {
+        long consumer = (long)INDEX.get(indices, CONSUMER);
+        int slot = (int)(consumer & mask);
+        Object value = ELEMENT.getAcquire(buffer, slot);
+        if (value == null) {
+            if (consumer == (long)INDEX.getVolatile(indices, PRODUCER)) return null; // Really empty
+            // Claimed, not filled yet: the sender is between its CAS and its store.
+            do {
+                Thread.onSpinWait();
+                value = ELEMENT.getAcquire(buffer, slot);
+            } while (value == null);
+        }
+        ELEMENT.set(buffer, slot, null);
+        INDEX.setRelease(indices, CONSUMER, consumer + 1); // Also publishes the cleared slot
+        return value;
+    }
+
+    // Stops at the first slot that isn't filled yet, claimed or not: the batch
+    // is whatever is ready now, and the rest comes with the next drain.
+    @Override
+    int drain(List<Object> into, int limit) {
+        long consumer = (long)INDEX.get(indices, CONSUMER);
+        int taken = 0;
+        while (taken < limit) {
+            int slot = (int)((consumer + taken) & mask);
+            Object value = ELEMENT.getAcquire(buffer, slot);
+            if (value == null) break;
+            ELEMENT.set(buffer, slot, null);
+            into.add(value);
+            taken++;
+        }
+        if (taken > 0) INDEX.setRelease(indices, CONSUMER, consumer + taken); // One write for the batch
+        return taken;
+    }
+
+    @Override
+    int size() {
+        long consumer = (long)INDEX.getAcquire(indices, CONSUMER);
+        long producer = (long)INDEX.getAcquire(indices, PRODUCER);
+        return (int)Math.max(0, Math.min(capacity, producer - consumer));
+    }
+
+    @Override
+    String kind() {
+        return "a multi-sender channel";
+    }
+}
@@ -0,0 +1,226 @@
+// In src/main/java/NativeBinding.java
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+// Turns static Java methods into NativeFunctions, without hand-writing a Body.
+//
+//   NativeBinding.bindAll(globals, MathNatives.class);   // every @FlowNative method
+//
+// Each method is called through a MethodHandle that was adapted ONCE, at bind
+// time, to the shape (Object, Object, ...) -> Object:
+//
+//   - every parameter gets its own converter, picked by its Java type. A
+//     'double' parameter just unboxes the Flow number, so nothing is allocated
+//     on the way in, and no Object[] is built for the call either;
+//   - the return value is widened to double (Flow's only number type) and
+//     boxed once, or becomes null for 'void'.
+//
+// Supported parameter types: double, float, long, int, short, byte, boolean,
+// String, Object and any other class (checked with isInstance).
+final class NativeBinding {
+    private NativeBinding() {}
+
+    // Binding reflects and adapts handles, which is slow; the resulting
+    // NativeFunctions are immutable, so every Context can share them.
+    private static final ClassValue<List<NativeFunction>> BOUND = new ClassValue<>() {
+        @Override
+        protected List<NativeFunction> computeValue(Class<?> host) {
+            List<NativeFunction> functions = new ArrayList<>();
+            for (Method method : host.getDeclaredMethods()) {
+                FlowNative annotation = method.getAnnotation(FlowNative.class);
+                if (annotation == null) continue;
+                String name = annotation.value().isEmpty() ? method.getName() : annotation.value();
+                functions.add(bind(name, method));
+            }
+            return Collections.unmodifiableList(functions);
+        }
+    };
+
+    private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+
+    // Defines every @FlowNative method of 'host' in 'globals'. Returns how many.
+    static int bindAll(Environment globals, Class<?> host) {
+        List<NativeFunction> functions = BOUND.get(host);
+        for (NativeFunction function : functions) {
+            globals.define(function.name(), function);
+        }
+        return functions.size();
+    }
+
+    // Binds one static method, annotated or not.
+    static NativeFunction bind(String name, Method method) {
+        if (!Modifier.isStatic(method.getModifiers())) {
+            throw new IllegalArgumentException("Native '" + name + "' must be a static method: " + method);
+        }
+        try {
+            return bind(name, LOOKUP.unreflect(method));
+        } catch (IllegalAccessException error) {
+            throw new IllegalArgumentException("Native '" + name + "' is not accessible: " + method, error);
+        }
+    }
+
+    static NativeFunction bind(String name, MethodHandle target) {
+        MethodType type = target.type();
+        int arity = type.parameterCount();
+
+        // --- STEP 1: Convert every argument from its Flow value. ---
+        MethodHandle[] converters = new MethodHandle[arity];
+        for (int i = 0; i < arity; i++) {
+            converters[i] = converter(name, i + 1, type.parameterType(i));
+        }
+        MethodHandle adapted = MethodHandles.filterArguments(target, 0, converters);
+
+        // --- STEP 2: Convert the result back. ---
+        adapted = adapted.asType(adapted.type().changeReturnType(flowReturnType(name, type.returnType())));
+        adapted = adapted.asType(MethodType.genericMethodType(arity));
+
+        // --- STEP 3: One Body per arity, so the call site can use invokeExact. ---
+        return new NativeFunction(name, arity, body(name, adapted, arity));
+    }
+
+    // Up to 4 parameters are passed one by one; more go through a single Object[].
+    private static NativeFunction.Body body(String name, MethodHandle handle, int arity) {
+        switch (arity) {
+            case 0: return (interpreter, args) -> {
+                try { return (Object)handle.invokeExact(); }
+                catch (Throwable error) { throw failure(name, error); }
+            };
+            case 1: return (interpreter, args) -> {
+                try { return (Object)handle.invokeExact(args.get(0)); }
+                catch (Throwable error) { throw failure(name, error); }
+            };
+            case 2: return (interpreter, args) -> {
+                try { return (Object)handle.invokeExact(args.get(0), args.get(1)); }
+                catch (Throwable error) { throw failure(name, error); }
+            };
+            case 3: return (interpreter, args) -> {
+                try { return (Object)handle.invokeExact(args.get(0), args.get(1), args.get(2)); }
+                catch (Throwable error) { throw failure(name, error); }
+            };
+            case 4: return (interpreter, args) -> {
+                try { return (Object)handle.invokeExact(args.get(0), args.get(1), args.get(2), args.get(3)); }
+                catch (Throwable error) { throw failure(name, error); }
+            };
+            default:
+                MethodHandle spread = handle.asSpreader(Object[].class, arity);
+                return (interpreter, args) -> {
+                    try { return (Object)spread.invokeExact(args.toArray()); }
+                    catch (Throwable error) { throw failure(name, error); }
+                };
+        }
+    }
+
+    // Our own conversion errors pass straight through; anything the Java side
+    // throws is reported against the native's name. JVM Errors aren't ours to eat.
+    private static RuntimeException failure(String name, Throwable error) {
+        if (error instanceof NativeFunction.Failure) return (NativeFunction.Failure)error;
+        if (error instanceof Error) throw (Error)error;
+        return new NativeFunction.Failure("'" + name + "' failed: " + error);
+    }
+
+    // =========================================================================
+    // == CONVERSIONS
+    // =========================================================================
+
+    private static final MethodHandle TO_DOUBLE = find("toDouble", double.class);
+    private static final MethodHandle TO_LONG = find("toLong", long.class);
+    private static final MethodHandle TO_INT = find("toInt", int.class);
+    private static final MethodHandle TO_BOOLEAN = find("toBoolean", boolean.class);
+    private static final MethodHandle TO_STRING = find("toFlowString", String.class);
+    private static final MethodHandle CHECK_TYPE;
+
+    static {
+        try {
+            CHECK_TYPE = LOOKUP.findStatic(NativeBinding.class, "checkType",
+                MethodType.methodType(Object.class, Class.class, String.class, int.class, Object.class));
+        } catch (ReflectiveOperationException error) {
+            throw new ExceptionInInitializerError(error);
+        }
+    }
+
+    private static MethodHandle find(String converter, Class<?> result) {
+        try {
+            return LOOKUP.findStatic(NativeBinding.class, converter,
+                MethodType.methodType(result, String.class, int.class, Object.class));
+        } catch (ReflectiveOperationException error) {
+            throw new ExceptionInInitializerError(error);
+        }
+    }
+
+    // A handle (Object) -> parameterType for one argument.
+    private static MethodHandle converter(String name, int index, Class<?> parameterType) {
+        MethodHandle converter;
+        if (parameterType == double.class || parameterType == float.class) {
+            converter = TO_DOUBLE;
+        } else if (parameterType == long.class) {
+            converter = TO_LONG;
+        } else if (parameterType == int.class || parameterType == short.class || parameterType == byte.class) {
+            converter = TO_INT;
+        } else if (parameterType == boolean.class) {
+            converter = TO_BOOLEAN;
+        } else if (parameterType == String.class) {
+            converter = TO_STRING;
+        } else if (parameterType == Object.class) {
+            return MethodHandles.identity(Object.class);
+        } else if (!parameterType.isPrimitive()) {
+            converter = MethodHandles.insertArguments(CHECK_TYPE, 0, parameterType);
+        } else {
+            throw new IllegalArgumentException("Native '" + name + "' has an unsupported parameter type: " + parameterType);
+        }
+        converter = MethodHandles.insertArguments(converter, 0, name, index);
+        // double -> float, int -> short/byte (truncating), Object -> SomeClass (checked above).
+        return MethodHandles.explicitCastArguments(converter, MethodType.methodType(parameterType, Object.class));
+    }
+
+    private static Class<?> flowReturnType(String name, Class<?> returnType) {
+        if (returnType == void.class || returnType == boolean.class || !returnType.isPrimitive()) return returnType;
+        if (returnType == char.class) {
+            throw new IllegalArgumentException("Native '" + name + "' has an unsupported return type: char");
+        }
+        return double.class; // Every other primitive is a number.
+    }
+
+    private static double toDouble(String function, int index, Object value) {
+        if (value instanceof Double) return (double)value;
+        throw new NativeFunction.Failure("'" + function + "' expects a number for argument " + index + ".");
+    }
+
+    private static long toLong(String function, int index, Object value) {
+        double number = toDouble(function, index, value);
+        if (number != Math.rint(number) || Math.abs(number) > 0x1p53) {
+            throw new NativeFunction.Failure("'" + function + "' expects a whole number for argument " + index + ".");
+        }
+        return (long)number;
+    }
+
+    private static int toInt(String function, int index, Object value) {
+        long number = toLong(function, index, value);
+        if (number < Integer.MIN_VALUE || number > Integer.MAX_VALUE) {
+            throw new NativeFunction.Failure("'" + function + "' argument " + index + " is out of range.");
+        }
+        return (int)number;
+    }
+
+    private static boolean toBoolean(String function, int index, Object value) {
+        if (value instanceof Boolean) return (boolean)value;
+        throw new NativeFunction.Failure("'" + function + "' expects true or false for argument " + index + ".");
+    }
+
+    private static String toFlowString(String function, int index, Object value) {
+        if (value instanceof String) return (String)value;
+        throw new NativeFunction.Failure("'" + function + "' expects a string for argument " + index + ".");
+    }
+
+    private static Object checkType(Class<?> type, String function, int index, Object value) {
+        if (value == null || type.isInstance(value)) return value;
+        throw new NativeFunction.Failure("'" + function + "' expects " + type.getSimpleName() +
+            " for argument " + index + ".");
+    }
+}
@@ -0,0 +1,47 @@
+// In src/main/java/NativeFunction.java
+
+import java.util.List;
+
+// A function written in Java but callable from Flow, like 'spawn' or 'integrate'.
+class NativeFunction implements HyperScriptCallable {
+    interface Body {
+        Object call(Interpreter interpreter, List<Object> arguments);
+    }
+
+    // Natives don't have a Token of their own to blame, so they throw this,
+    // and Interpreter.visitCallExpr turns it into a RuntimeError at the call site.
+    static class Failure extends RuntimeException {
+        Failure(String message) {
+            super(message);
+        }
+    }
+
+    private final String name;
+    private final int arity;
+    private final Body body;
+
+    NativeFunction(String name, int arity, Body body) {
+        this.name = name;
+        this.arity = arity;
+        this.body = body;
+    }
+
+    String name() {
+        return name;
+    }
+
+    @Override
+    public int arity() {
+        return arity;
+    }
+
+    @Override
+    public Object call(Interpreter interpreter, List<Object> arguments) {
+        return body.call(interpreter, arguments);
+    }
+
+    @Override
+    public String toString() {
+        return "<native fn " + name + ">";
+    }
+}
@@ -0,0 +1,164 @@
+// In src/main/java/OutputSink.java
+
+import java.io.FileDescriptor;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+// A big buffer in front of a FileChannel (a file, or the process's stdout).
+//
+// System.out flushes on every println, so a print-heavy script makes one write
+// syscall per line. A sink only writes when its buffer fills up, or when the
+// oldest unwritten byte is older than the delay (checked by one shared
+// background thread), or when someone calls flush().
+//
+// Wrap it in a PrintStream WITHOUT autoflush, and flush at the end of a run.
+final class OutputSink extends OutputStream {
+    static final int DEFAULT_CAPACITY = 64 * 1024;
+    static final long DEFAULT_MAX_DELAY_MILLIS = 50;
+    private static final long CHECK_PERIOD_MILLIS = 10; // How often the flusher looks at every sink
+
+    // Every open sink, for the time-based flusher. (Declared before STDOUT, which adds itself.)
+    private static final Set<OutputSink> OPEN = ConcurrentHashMap.newKeySet();
+    private static volatile ScheduledExecutorService flusher;
+
+    private static final OutputSink STDOUT = new OutputSink(
+        new FileOutputStream(FileDescriptor.out).getChannel(), false, DEFAULT_CAPACITY, DEFAULT_MAX_DELAY_MILLIS);
+
+    private final FileChannel channel;
+    private final boolean ownsChannel;
+    private final ByteBuffer buffer;
+    private final long maxDelayNanos;
+    private long pendingSince = 0; // nanoTime when the buffer went from empty to non-empty
+    private boolean closed = false;
+
+    private OutputSink(FileChannel channel, boolean ownsChannel, int capacity, long maxDelayMillis) {
+        this.channel = channel;
+        this.ownsChannel = ownsChannel;
+        this.buffer = ByteBuffer.allocateDirect(capacity);
+        this.maxDelayNanos = TimeUnit.MILLISECONDS.toNanos(maxDelayMillis);
+        OPEN.add(this);
+        startFlusher();
+    }
+
+    // The process's stdout. Shared, and flushed on exit.
+    static OutputSink stdout() {
+        return STDOUT;
+    }
+
+    static OutputSink file(Path path) throws IOException {
+        return file(path, DEFAULT_CAPACITY, DEFAULT_MAX_DELAY_MILLIS);
+    }
+
+    static OutputSink file(Path path, int capacity, long maxDelayMillis) throws IOException {
+        FileChannel channel = FileChannel.open(path,
+            StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+        return new OutputSink(channel, true, capacity, maxDelayMillis);
+    }
+
+    // =========================================================================
+    // == WRITING
+    // =========================================================================
+
+    @Override
+    public synchronized void write(int b) throws IOException {
+        ensureOpen();
+        if (!buffer.hasRemaining()) drain();
+        if (buffer.position() == 0) pendingSince = System.nanoTime();
+        buffer.put((byte)b);
+    }
+
+    @Override
+    public synchronized void write(byte[] bytes, int offset, int length) throws IOException {
+        ensureOpen();
+        if (length > buffer.remaining()) {
+            drain();
+            if (length > buffer.capacity()) {
+                // Bigger than the whole buffer: don't copy it through, just write it.
+                writeFully(ByteBuffer.wrap(bytes, offset, length));
+                return;
+            }
+        }
+        if (buffer.position() == 0) pendingSince = System.nanoTime();
+        buffer.put(bytes, offset, length);
+    }
+
+    @Override
+    public synchronized void flush() throws IOException {
+        if (!closed) drain();
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (closed) return;
+        drain();
+        closed = true;
+        OPEN.remove(this);
+        if (ownsChannel) channel.close();
+    }
+
+    private void drain() throws IOException {
+        if (buffer.position() == 0) return;
+        buffer.flip();
+        writeFully(buffer);
+        buffer.clear();
+    }
+
+    private void writeFully(ByteBuffer bytes) throws IOException {
+        while (bytes.hasRemaining()) channel.write(bytes);
+    }
+
+    private void ensureOpen() throws IOException {
+        if (closed) throw new IOException("Output sink is closed.");
+    }
+
+    // =========================================================================
+    // == THE TIME THRESHOLD
+    // =========================================================================
+
+    private synchronized void flushIfStale(long now) {
+        if (closed || buffer.position() == 0 || now - pendingSince < maxDelayNanos) return;
+        try {
+            drain();
+        } catch (IOException error) {
+            // Nobody to tell on this thread; the owner's next write or flush will fail too.
+        }
+    }
+
+    private static void startFlusher() {
+        if (flusher != null) return;
+        synchronized (OutputSink.class) {
+            if (flusher != null) return;
+            ScheduledExecutorService service = Executors.newSingleThreadScheduledExecutor(task -> {
+                Thread thread = new Thread(task, "hyperscript-output-flusher");
+                thread.setDaemon(true);
+                return thread;
+            });
+            service.scheduleAtFixedRate(() -> {
+                long now = System.nanoTime();
+                for (OutputSink sink : OPEN) sink.flushIfStale(now);
+            }, CHECK_PERIOD_MILLIS, CHECK_PERIOD_MILLIS, TimeUnit.MILLISECONDS);
+            flusher = service;
+
+            // Whatever is still buffered when the JVM exits (even via System.exit) gets written.
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                for (OutputSink sink : OPEN) {
+                    try {
+                        sink.flush();
+                    } catch (IOException error) {
+                        // Too late to report it anywhere.
+                    }
+                }
+            }, "hyperscript-output-flush-on-exit"));
+        }
+    }
+}
@@ -0,0 +1,207 @@
+// In src/main/java/PipelineEvents.java
+
+import java.lang.management.ManagementFactory;
+import java.util.List;
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.EventType;
+import jdk.jfr.FlightRecorder;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+// JDK Flight Recorder events for every stage of the pipeline, so a recording
+// (from production, say) shows where a slow run went:
+//
+//   java -XX:StartFlightRecording:filename=run.jfr -cp target/classes HyperScript project
+//   jfr print --events 'hyperscript.*' run.jfr      (or open run.jfr in JMC)
+//
+//   hyperscript.Scan          file, characters, tokens, allocated bytes
+//   hyperscript.Parse         file, language, tokens, AST nodes, allocated bytes
+//   hyperscript.Lower         file, archetypes, allocated bytes
+//   hyperscript.Execute       file, allocated bytes
+//   hyperscript.FunctionCall  function, line; only calls slower than the threshold
+//
+// Every event has its duration. Only calls that took at least
+// -Dhyperscript.jfr.callThreshold milliseconds (default 1) become FunctionCall
+// events. It's a property rather than a JFR '#threshold' setting because our
+// event classes aren't registered yet when -XX:StartFlightRecording reads its
+// settings, so JFR would reject it.
+//
+// With no recording running, events are never committed and nothing extra is
+// counted: isEnabled() is false, so the AST isn't walked and the allocation
+// counter isn't read. Calls are too frequent to even allocate an event for, so
+// the Interpreter asks recordingCalls() first and only then makes one.
+final class PipelineEvents {
+    private PipelineEvents() {}
+
+    private static final com.sun.management.ThreadMXBean THREADS =
+        (com.sun.management.ThreadMXBean)ManagementFactory.getThreadMXBean();
+
+    static final long CALL_THRESHOLD_NANOS = (long)(Double.parseDouble(
+        System.getProperty("hyperscript.jfr.callThreshold", "1")) * 1_000_000);
+
+    @Name("hyperscript.Scan")
+    @Label("Scan")
+    @Category({ "HyperScript", "Pipeline" })
+    @Description("The Scanner turning one file into tokens")
+    @StackTrace(false)
+    static final class ScanEvent extends Event {
+        @Label("File") String file;
+        @Label("Characters") int characters;
+        @Label("Tokens") int tokens;
+        @Label("Allocated") @DataAmount long allocated;
+    }
+
+    @Name("hyperscript.Parse")
+    @Label("Parse")
+    @Category({ "HyperScript", "Pipeline" })
+    @Description("FlowParser or BlueprintParser building one file's AST")
+    @StackTrace(false)
+    static final class ParseEvent extends Event {
+        @Label("File") String file;
+        @Label("Language") String language;
+        @Label("Tokens") int tokens;
+        @Label("AST Nodes") int nodes;
+        @Label("Allocated") @DataAmount long allocated;
+    }
+
+    @Name("hyperscript.Lower")
+    @Label("Lower")
+    @Category({ "HyperScript", "Pipeline" })
+    @Description("Lowering one Blueprint file into World archetypes")
+    @StackTrace(false)
+    static final class LowerEvent extends Event {
+        @Label("File") String file;
+        @Label("Archetypes") int archetypes;
+        @Label("Allocated") @DataAmount long allocated;
+    }
+
+    @Name("hyperscript.Execute")
+    @Label("Execute")
+    @Category({ "HyperScript", "Pipeline" })
+    @Description("The Interpreter running one Flow program")
+    @StackTrace(false)
+    static final class ExecuteEvent extends Event {
+        @Label("File") String file;
+        @Label("Allocated") @DataAmount long allocated;
+    }
+
+    @Name("hyperscript.FunctionCall")
+    @Label("Function Call")
+    @Category({ "HyperScript", "Interpreter" })
+    @Description("A Flow or native function call that took longer than -Dhyperscript.jfr.callThreshold")
+    @StackTrace(false)
+    static final class CallEvent extends Event {
+        @Label("Function") String function;
+        @Label("Line") int line;
+    }
+
+    // =========================================================================
+    // == THE INSTRUMENTED STAGES
+    // =========================================================================
+
+    static List<Token> scan(String source, String file) {
+        ScanEvent event = new ScanEvent();
+        long allocatedBefore = event.isEnabled() ? THREADS.getCurrentThreadAllocatedBytes() : 0;
+        event.begin();
+        List<Token> tokens = new Scanner(source).scanTokens();
+        event.end();
+        if (event.shouldCommit()) {
+            event.allocated = THREADS.getCurrentThreadAllocatedBytes() - allocatedBefore;
+            event.file = file;
+            event.characters = source.length();
+            event.tokens = tokens.size();
+            event.commit();
+        }
+        return tokens;
+    }
+
+    static List<Stmt> parseFlow(List<Token> tokens, String file) {
+        ParseEvent event = new ParseEvent();
+        long allocatedBefore = event.isEnabled() ? THREADS.getCurrentThreadAllocatedBytes() : 0;
+        event.begin();
+        List<Stmt> statements = new FlowParser(tokens).parse();
+        event.end();
+        if (event.shouldCommit()) {
+            event.allocated = THREADS.getCurrentThreadAllocatedBytes() - allocatedBefore;
+            event.file = file;
+            event.language = "Flow";
+            event.tokens = tokens.size();
+            event.nodes = AstNodeCounter.flow(statements);
+            event.commit();
+        }
+        return statements;
+    }
+
+    static List<BlueprintStmt> parseBlueprint(List<Token> tokens, String file) {
+        ParseEvent event = new ParseEvent();
+        long allocatedBefore = event.isEnabled() ? THREADS.getCurrentThreadAllocatedBytes() : 0;
+        event.begin();
+        List<BlueprintStmt> statements = new BlueprintParser(tokens).parse();
+        event.end();
+        if (event.shouldCommit()) {
+            event.allocated = THREADS.getCurrentThreadAllocatedBytes() - allocatedBefore;
+            event.file = file;
+            event.language = "Blueprint";
+            event.tokens = tokens.size();
+            event.nodes = AstNodeCounter.blueprint(statements);
+            event.commit();
+        }
+        return statements;
+    }
+
+    static List<Archetype> lower(World world, List<BlueprintStmt> statements, String file) {
+        LowerEvent event = new LowerEvent();
+        long allocatedBefore = event.isEnabled() ? THREADS.getCurrentThreadAllocatedBytes() : 0;
+        event.begin();
+        List<Archetype> archetypes = world.load(statements, file);
+        event.end();
+        if (event.shouldCommit()) {
+            event.allocated = THREADS.getCurrentThreadAllocatedBytes() - allocatedBefore;
+            event.file = file;
+            event.archetypes = archetypes.size();
+            event.commit();
+        }
+        return archetypes;
+    }
+
+    static void execute(Interpreter interpreter, List<Stmt> statements, String file) {
+        ExecuteEvent event = new ExecuteEvent();
+        long allocatedBefore = event.isEnabled() ? THREADS.getCurrentThreadAllocatedBytes() : 0;
+        event.begin();
+        interpreter.interpret(statements);
+        event.end();
+        if (event.shouldCommit()) {
+            event.allocated = THREADS.getCurrentThreadAllocatedBytes() - allocatedBefore;
+            event.file = file;
+            event.commit();
+        }
+    }
+
+    // Looked up the first time it's needed: while JFR isn't running, asking
+    // for it would start JFR up, which takes a few hundred milliseconds.
+    private static volatile EventType callType;
+
+    // Whether a recording wants FunctionCall events right now. No allocation,
+    // and a single field read while JFR isn't running at all.
+    static boolean recordingCalls() {
+        if (!FlightRecorder.isInitialized()) return false;
+        EventType type = callType;
+        if (type == null) callType = type = EventType.getEventType(CallEvent.class);
+        return type.isEnabled();
+    }
+
+    // Called by the Interpreter after every call it started while recording.
+    static void callEnded(CallEvent event, long startNanos, HyperScriptCallable function, int line) {
+        if (System.nanoTime() - startNanos < CALL_THRESHOLD_NANOS) return;
+        event.end();
+        if (event.shouldCommit()) {
+            event.function = function.toString();
+            event.line = line;
+            event.commit();
+        }
+    }
+}
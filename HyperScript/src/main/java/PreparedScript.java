@@ -0,0 +1,99 @@
+// In src/main/java/PreparedScript.java
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+
+// Compile once, run many times.
+//
+//   PreparedScript rule = PreparedScript.compile("return price * quantity > limit");
+//   Object approved = rule.run(Map.of("price", 9.5, "quantity", 3, "limit", 25));
+//
+// compile() scans and parses ONCE; run() only binds the inputs and walks the
+// tree. The statements are an immutable list and the interpreter never writes
+// to the AST, so one PreparedScript can be run from any number of threads at
+// the same time, as long as each thread uses its own Context.
+final class PreparedScript {
+
+    /** Thrown by compile() when the source has syntax errors. */
+    static class CompileError extends RuntimeException {
+        CompileError(String messages) {
+            super(messages);
+        }
+    }
+
+    private final List<Stmt> statements;
+
+    // run(inputs) borrows its thread's Context instead of making one every
+    // time: a new Context builds an Interpreter, a World and every native,
+    // which costs more than running a small rule. It's put back the way it
+    // was made before each run, so nothing one run leaves behind (globals,
+    // channels, error flags) reaches the next. The scripts can't load
+    // Blueprints, so the World never holds anything.
+    private static final ThreadLocal<Pooled> POOL = ThreadLocal.withInitial(Pooled::new);
+
+    private static final class Pooled {
+        final Context context = new Context();
+        final Map<String, Object> natives = context.interpreter.globals.snapshot();
+        boolean inUse = false; // A native that runs another PreparedScript, say
+
+        void reset() {
+            context.interpreter.globals.restore(natives);
+            context.channels.clear();
+            context.hadError = false;
+            context.hadRuntimeError = false;
+        }
+    }
+
+    private PreparedScript(List<Stmt> statements) {
+        this.statements = statements;
+    }
+
+    // Parses Flow source. Nothing is printed: syntax errors are collected and
+    // thrown as one CompileError instead.
+    static PreparedScript compile(String source) {
+        ByteArrayOutputStream errors = new ByteArrayOutputStream();
+        Context compiler = new Context(System.out, new PrintStream(errors, true, StandardCharsets.UTF_8));
+        List<Stmt> statements = compiler.callIn(() -> new FlowParser(new Scanner(source).scanTokens()).parse());
+        if (compiler.hadError) {
+            throw new CompileError(errors.toString(StandardCharsets.UTF_8).trim());
+        }
+        return new PreparedScript(List.copyOf(statements));
+    }
+
+    // Runs in this thread's pooled Context, which prints to System.out. Each
+    // run starts from a clean slate, as if the Context were new.
+    Object run(Map<String, ?> inputs) {
+        Pooled pooled = POOL.get();
+        if (pooled.inUse) return run(new Context(), inputs); // Already running one on this thread
+        pooled.inUse = true;
+        try {
+            pooled.reset();
+            return run(pooled.context, inputs);
+        } finally {
+            pooled.inUse = false;
+        }
+    }
+
+    // Binds every input as a global, runs, and returns the result: the value of a
+    // top-level 'return', or of the last expression statement, or null.
+    // Runtime errors are thrown as Interpreter.RuntimeError, not printed.
+    Object run(Context context, Map<String, ?> inputs) {
+        return context.callIn(() -> {
+            for (Map.Entry<String, ?> input : inputs.entrySet()) {
+                context.set(input.getKey(), toFlow(input.getValue()));
+            }
+            return context.interpreter.run(statements);
+        });
+    }
+
+    // Flow only has one number type, so every Java number comes in as a double.
+    static Object toFlow(Object value) {
+        if (value instanceof Number && !(value instanceof Double)) {
+            return ((Number)value).doubleValue();
+        }
+        return value;
+    }
+}
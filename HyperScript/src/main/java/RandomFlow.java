@@ -0,0 +1,264 @@
+// In src/main/java/RandomFlow.java
+
+import java.util.BitSet;
+import java.util.Random;
+
+// Generates random, always-terminating Flow programs for the DiffMode harness.
+//
+// The same seed always gives the same program, so any mismatch can be
+// reproduced with 'HyperScript --diff --seed N --programs 1'.
+//
+// Programs are aimed at the places where an optimized tier is most likely to
+// disagree with the tree-walker: how doubles print (-0, 1E21, NaN, 0.1 + 0.2),
+// truthiness of null/false/0/"", '==' across types, division and modulo by
+// zero, and type errors in the middle of an expression.
+//
+// Values are type-directed: wherever only a number will do (arithmetic, '<',
+// natives, function arguments) we generate a number, and other types go only
+// where anything is fine ('..', '==', print, truthiness). Variables that got
+// one of those are remembered and never read as numbers. So a program almost
+// always runs to the end, and only the odd one is given a type error on
+// purpose, part way through an expression.
+//
+// Loops are always counted ('while (iN < K)'), and functions only call
+// functions declared before them, so there's no recursion and every program ends.
+final class RandomFlow {
+    private static final int MAX_DEPTH = 4;
+    // '/' is the only one that can fail on numbers, so it's rarer than the rest.
+    private static final String[] NUMBER_OPERATORS = { "+", "+", "-", "-", "*", "*", "/", "%", "^" };
+    private static final String[] COMPARISONS = { "==", "!=", "<", "<=", ">", ">=" };
+    private static final String[] NUMBERS = {
+        "0", "1", "2", "3", "7", "10", "0.5", "0.1", "0.2", "1000000", "123456789", "99999999999"
+    };
+    private static final String[] LITERALS = { "\"\"", "\"a\"", "\"0\"", "true", "false", "null", "0" };
+    private static final String[] STRINGS = { "\"\"", "\"a\"", "\"0\"" };
+    private static final String[] NATIVES_1 = { "floor", "ceil", "round", "abs", "sqrt" };
+    private static final String[] NATIVES_2 = { "min", "max", "hypot" };
+
+    private final Random random;
+    private final StringBuilder source = new StringBuilder();
+    private int variables = 0;
+    private BitSet untyped = new BitSet(); // vN may hold something other than a number
+    private int functions = 0;
+    private int loops = 0;
+    private int indent = 0;
+
+    private RandomFlow(long seed) {
+        this.random = new Random(seed);
+    }
+
+    static String generate(long seed) {
+        return new RandomFlow(seed).program();
+    }
+
+    private String program() {
+        int functionCount = random.nextInt(3);
+        for (int i = 0; i < functionCount; i++) function();
+
+        int globals = 2 + random.nextInt(3);
+        for (int i = 0; i < globals; i++) {
+            declare(pick(NUMBERS), false);
+        }
+        int statements = 4 + random.nextInt(8);
+        for (int i = 0; i < statements; i++) statement(0);
+        return source.toString();
+    }
+
+    // =========================================================================
+    // == STATEMENTS
+    // =========================================================================
+
+    private void function() {
+        int name = functions;
+        line("function f" + name + "(a, b)");
+        indent++;
+        int savedVariables = variables;
+        BitSet savedUntyped = untyped;
+        variables = 0; // Only parameters and our own locals are visible in here.
+        untyped = new BitSet();
+        declare("a", false); // Every call passes numbers
+        declare("b", false);
+        int statements = 1 + random.nextInt(3);
+        for (int i = 0; i < statements; i++) statement(2);
+        line("return " + number(1));
+        variables = savedVariables;
+        untyped = savedUntyped;
+        indent--;
+        line("end");
+        functions = name + 1;
+    }
+
+    private void statement(int depth) {
+        int choice = depth >= 3 ? random.nextInt(3) : random.nextInt(6);
+        switch (choice) {
+            case 0:
+                line("print " + text(1));
+                break;
+            case 1:
+                if (variables > 0) {
+                    assign();
+                } else {
+                    declare(); // Nothing to assign to yet
+                }
+                break;
+            case 2:
+                declare();
+                break;
+            case 3:
+                line("if (" + condition(1) + ") then");
+                block(depth);
+                if (random.nextBoolean()) {
+                    line("else");
+                    block(depth);
+                }
+                line("end");
+                break;
+            case 4: {
+                String counter = "i" + loops++;
+                line("let " + counter + " = 0");
+                line("while (" + counter + " < " + (1 + random.nextInt(5)) + ") do");
+                block(depth);
+                indent++;
+                line(counter + " = " + counter + " + 1");
+                indent--;
+                line("end");
+                break;
+            }
+            default:
+                line("print " + number(1));
+                break;
+        }
+    }
+
+    // Locals declared in a block aren't visible after it, so they're forgotten again.
+    // (Their bits in 'untyped' are rewritten by the next declare.)
+    private void block(int depth) {
+        indent++;
+        int savedVariables = variables;
+        int statements = 1 + random.nextInt(3);
+        for (int i = 0; i < statements; i++) statement(depth + 1);
+        variables = savedVariables;
+        indent--;
+    }
+
+    // One in eight variables is for values of any type.
+    private void declare() {
+        boolean anything = random.nextInt(8) == 0;
+        declare(anything ? value(0) : number(0), anything);
+    }
+
+    // The value is generated before the name exists, so it can't refer to itself.
+    private void declare(String value, boolean anything) {
+        untyped.set(variables, anything);
+        line("let v" + variables++ + " = " + value);
+    }
+
+    // Once a variable may hold anything, it stays that way: the assignment may
+    // be inside an 'if' that didn't run.
+    private void assign() {
+        int target = random.nextInt(variables);
+        if (untyped.get(target) && random.nextBoolean()) {
+            line("v" + target + " = " + value(0));
+        } else {
+            line("v" + target + " = " + number(0));
+        }
+    }
+
+    // =========================================================================
+    // == EXPRESSIONS
+    // =========================================================================
+
+    // A number. Very rarely it's anything at all, to get a type error part way
+    // through an expression.
+    private String number(int depth) {
+        if (depth >= MAX_DEPTH) return atom();
+        switch (random.nextInt(40)) {
+            case 0: case 1: case 2: case 3: case 4: case 5: case 6: case 7: case 8: case 9: case 10:
+                return number(depth + 1) + " " + pick(NUMBER_OPERATORS) + " " + number(depth + 1);
+            case 11: case 12: case 13:
+                return "-" + number(depth + 1);
+            case 14: case 15: case 16:
+                return "(" + number(depth + 1) + ")";
+            case 17: case 18: case 19: case 20: case 21:
+                return call(depth);
+            case 22:
+                return random.nextInt(8) == 0 ? wild(depth) : atom();
+            default:
+                return atom();
+        }
+    }
+
+    // Anything: a number half the time.
+    private String value(int depth) {
+        if (depth >= MAX_DEPTH || random.nextBoolean()) return number(depth);
+        return wild(depth);
+    }
+
+    // Something that's usually true or false, for 'if' and 'while'.
+    private String condition(int depth) {
+        if (depth >= MAX_DEPTH) return number(depth) + " " + pick(COMPARISONS) + " " + number(depth);
+        switch (random.nextInt(8)) {
+            case 0: case 1: case 2:
+                return number(depth + 1) + " " + pick(COMPARISONS) + " " + number(depth + 1);
+            case 3:
+                return condition(depth + 1) + (random.nextBoolean() ? " and " : " or ") + condition(depth + 1);
+            case 4:
+                return "!(" + condition(depth + 1) + ")";
+            case 5:
+                return value(depth + 1) + (random.nextBoolean() ? " == " : " != ") + value(depth + 1);
+            default:
+                return value(depth + 1); // Truthiness of whatever it turns out to be
+        }
+    }
+
+    // Text, for print.
+    private String text(int depth) {
+        if (random.nextBoolean()) return "\"v\" .. " + value(depth);
+        return value(depth) + " .. \" \" .. " + (random.nextBoolean() ? value(depth) : "(" + condition(depth) + ")");
+    }
+
+    // Anything but a plain number: literals of every type, conditions used as
+    // values, concatenations, and the variables that hold such things.
+    private String wild(int depth) {
+        switch (random.nextInt(6)) {
+            case 0: return pick(LITERALS);
+            case 1: return "(" + condition(depth + 1) + ")";
+            case 2: return "(" + number(depth + 1) + " .. " + value(depth + 1) + ")";
+            case 3: return "(" + value(depth + 1) + " + " + pick(STRINGS) + ")"; // '+' on a string concatenates
+            case 4: return "(" + number(depth + 1) + (random.nextBoolean() ? " and " : " or ") + pick(LITERALS) + ")";
+            default: return anyVariable();
+        }
+    }
+
+    private String call(int depth) {
+        int kind = random.nextInt(3);
+        if (kind == 0 && functions > 0) {
+            return "f" + random.nextInt(functions) + "(" + number(depth + 1) + ", " + number(depth + 1) + ")";
+        }
+        if (kind == 1) return pick(NATIVES_2) + "(" + number(depth + 1) + ", " + number(depth + 1) + ")";
+        return pick(NATIVES_1) + "(" + number(depth + 1) + ")";
+    }
+
+    // A number literal, or a variable that holds a number.
+    private String atom() {
+        if (variables > 0 && random.nextInt(3) > 0) {
+            int variable = random.nextInt(variables);
+            if (!untyped.get(variable)) return "v" + variable;
+        }
+        return pick(NUMBERS);
+    }
+
+    private String anyVariable() {
+        if (variables == 0) return pick(LITERALS);
+        return "v" + random.nextInt(variables);
+    }
+
+    private String pick(String[] options) {
+        return options[random.nextInt(options.length)];
+    }
+
+    private void line(String text) {
+        for (int i = 0; i < indent; i++) source.append("    ");
+        source.append(text).append('\n');
+    }
+}
@@ -0,0 +1,165 @@
+// In src/main/java/RuntimeMetrics.java
+
+import java.lang.management.ManagementFactory;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+// Live counters for long-running hosts, published over JMX:
+//
+//   java -Dhyperscript.jmx=true -cp target/classes HyperScript project
+//   jconsole   ->  MBeans  ->  com.hypertech.hyperscript  ->  Interpreter / World
+//
+// Every counter is a LongAdder: each thread bumps its own cell, so any number
+// of Contexts can count at once without fighting over one cache line, and a
+// JMX read (which sums the cells) never blocks or slows them down.
+//
+// ENABLED is a static final, like FlowProfiler's. Without -Dhyperscript.jmx
+// every 'if (RuntimeMetrics.ENABLED)' is folded away and nothing is counted.
+final class RuntimeMetrics {
+    private RuntimeMetrics() {}
+
+    static final boolean ENABLED = Boolean.getBoolean("hyperscript.jmx");
+    static final String DOMAIN = "com.hypertech.hyperscript";
+
+    static final LongAdder STATEMENTS = new LongAdder();
+    static final LongAdder CALLS = new LongAdder();
+    static final LongAdder FRAMES = new LongAdder();
+    static final LongAdder ENVIRONMENTS = new LongAdder();
+    static final LongAdder RUNTIME_ERRORS = new LongAdder();
+    static final LongAdder PRINT_BYTES = new LongAdder();
+
+    // Every World that exists; weak, so finished Contexts can go away.
+    private static final Set<World> WORLDS = Collections.newSetFromMap(new WeakHashMap<>());
+    private static final Map<String, SystemTimer> SYSTEMS = new ConcurrentHashMap<>();
+
+    static {
+        if (ENABLED) register();
+    }
+
+    private static void register() {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        try {
+            server.registerMBean(new InterpreterMetrics(), new ObjectName(DOMAIN + ":type=Interpreter"));
+            server.registerMBean(new WorldMetrics(), new ObjectName(DOMAIN + ":type=World"));
+        } catch (JMException error) {
+            // Already registered (e.g. by another class loader), or JMX is locked down.
+            System.err.println("Could not register HyperScript MBeans: " + error.getMessage());
+        }
+    }
+
+    // =========================================================================
+    // == RECORDING
+    // =========================================================================
+
+    static void worldCreated(World world) {
+        synchronized (WORLDS) {
+            WORLDS.add(world);
+        }
+    }
+
+    // One run of a system over the World, e.g. a bulk integrate or a Flow system.
+    static void systemRan(String system, long nanos) {
+        SystemTimer timer = SYSTEMS.computeIfAbsent(system, name -> new SystemTimer());
+        timer.runs.increment();
+        timer.nanos.add(nanos);
+    }
+
+    private static final class SystemTimer {
+        final LongAdder runs = new LongAdder();
+        final LongAdder nanos = new LongAdder();
+    }
+
+    // What println(text) writes, in UTF-8 and with its newline. Counted without
+    // encoding the string, since this runs on every print.
+    static void printed(String text) {
+        long bytes = 1;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c < 0x80) bytes += 1;
+            else if (c < 0x800) bytes += 2;
+            else if (Character.isHighSurrogate(c)) { bytes += 4; i++; }
+            else bytes += 3;
+        }
+        PRINT_BYTES.add(bytes);
+    }
+
+    // =========================================================================
+    // == THE MBEANS
+    // =========================================================================
+
+    private static final class InterpreterMetrics implements InterpreterMetricsMXBean {
+        public long getStatementsExecuted() { return STATEMENTS.sum(); }
+        public long getCalls() { return CALLS.sum(); }
+        public long getFramesCreated() { return FRAMES.sum(); }
+        public long getEnvironmentsCreated() { return ENVIRONMENTS.sum(); }
+        public long getRuntimeErrors() { return RUNTIME_ERRORS.sum(); }
+        public long getPrintBytes() { return PRINT_BYTES.sum(); }
+
+        public void reset() {
+            STATEMENTS.reset();
+            CALLS.reset();
+            FRAMES.reset();
+            ENVIRONMENTS.reset();
+            RUNTIME_ERRORS.reset();
+            PRINT_BYTES.reset();
+        }
+    }
+
+    // Archetype and entity counts are read from the Worlds themselves, so they
+    // cost nothing until someone asks. This runs on a JMX thread, so it only
+    // looks at the array each World publishes (never its live map), and an
+    // archetype's size may be a little stale; for a dashboard, a count that's
+    // one frame old is fine.
+    private static final class WorldMetrics implements WorldMetricsMXBean {
+        private World[] worlds() {
+            synchronized (WORLDS) {
+                return WORLDS.toArray(new World[0]);
+            }
+        }
+
+        public int getWorlds() {
+            return worlds().length;
+        }
+
+        public int getArchetypes() {
+            int count = 0;
+            for (World world : worlds()) count += world.publishedArchetypes().length;
+            return count;
+        }
+
+        public long getEntities() {
+            long count = 0;
+            for (World world : worlds()) {
+                for (Archetype archetype : world.publishedArchetypes()) count += archetype.size();
+            }
+            return count;
+        }
+
+        public Map<String, Long> getSystemRuns() {
+            Map<String, Long> runs = new TreeMap<>();
+            SYSTEMS.forEach((name, timer) -> runs.put(name, timer.runs.sum()));
+            return runs;
+        }
+
+        public Map<String, Double> getSystemFrameMillis() {
+            Map<String, Double> millis = new TreeMap<>();
+            SYSTEMS.forEach((name, timer) -> {
+                long runs = timer.runs.sum();
+                millis.put(name, runs == 0 ? 0.0 : timer.nanos.sum() / 1e6 / runs);
+            });
+            return millis;
+        }
+
+        public void reset() {
+            SYSTEMS.clear();
+        }
+    }
+}
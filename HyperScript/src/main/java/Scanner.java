@@ -39,6 +39,8 @@ class Scanner {
         keywords.put("let",     TokenType.VAR);
         keywords.put("while",   TokenType.WHILE);
         keywords.put("do",      TokenType.DO);
+        keywords.put("wait",    TokenType.WAIT);
+        keywords.put("yield",   TokenType.YIELD);
 
         // --- Blueprint Keywords (CAPITALIZED & lowercase) ---
         keywords.put("Sector",      TokenType.SECTOR);
@@ -50,6 +52,7 @@ class Scanner {
         keywords.put("Flow",        TokenType.FLOW); // The keyword 'Flow'
         keywords.put("Manifest",    TokenType.MANIFEST); // The keyword 'Manifest'
         keywords.put("Blueprint",   TokenType.BLUEPRINT); // The keyword 'Blueprint'
+        keywords.put("Events",      TokenType.EVENTS);    // Flow's 'Events ... end' block
         
         keywords.put("component",   TokenType.COMPONENT);
         keywords.put("role",        TokenType.ROLE);
@@ -0,0 +1,79 @@
+// In src/main/java/ScriptScheduler.java
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+
+// Runs many scripts on a fixed number of slots, taking turns.
+//
+//   ScriptScheduler scheduler = new ScriptScheduler(4, 10_000);   // 4 at once, 10k steps a turn
+//   Future<Integer> status = scheduler.submit(new Context(out, err), source);
+//
+// Every script gets its own virtual thread, but may only run while it holds one
+// of the slots. After each slice of fuel (see Fuel) it hands its slot to the
+// script that has waited longest and queues up again, so one script spinning in
+// a loop can't starve the others: it just gets its fair share of turns.
+//
+// Scripts are preempted only at loop back-edges and calls, never in the middle
+// of a native, so a slot is never given up while a World is half-updated.
+// Cancelling a script's Future (with interrupt) stops it within Fuel.CHECK_EVERY
+// steps, and at the latest at the end of its turn.
+//
+// Scripts submitted to the same scheduler share its ChannelRegistry, so they
+// can talk over channel(name, capacity). Nobody else sees those channels, and
+// they're dropped when the scheduler is closed.
+class ScriptScheduler implements AutoCloseable {
+    private final Semaphore slots;
+    private final long slice;
+    private final ExecutorService threads = Executors.newVirtualThreadPerTaskExecutor();
+    final ChannelRegistry channels = new ChannelRegistry();
+
+    ScriptScheduler(int slots, long slice) {
+        if (slots < 1) throw new IllegalArgumentException("A scheduler needs at least one slot.");
+        this.slots = new Semaphore(slots, true); // Fair: waiting scripts go in arrival order
+        this.slice = slice;
+    }
+
+    // Runs Flow source in 'context'. The result is eval()'s exit status: 0, 65 or 70.
+    Future<Integer> submit(Context context, String source) {
+        return submit(context, source, Fuel.UNLIMITED);
+    }
+
+    // Same, with at most 'budget' steps in total.
+    Future<Integer> submit(Context context, String source, long budget) {
+        CompletableFuture<Integer> result = new CompletableFuture<>();
+        context.channels = channels;
+        Future<?> task = threads.submit(() -> {
+            slots.acquireUninterruptibly();
+            try {
+                context.fuel.limit(budget);
+                context.fuel.yieldEvery(slice, this::yieldTurn);
+                result.complete(context.eval(source));
+            } catch (Throwable error) {
+                result.completeExceptionally(error);
+            } finally {
+                slots.release();
+            }
+        });
+        // Cancelling the result interrupts the script, which Fuel notices at its next refill().
+        result.whenComplete((status, error) -> {
+            if (result.isCancelled()) task.cancel(true);
+        });
+        return result;
+    }
+
+    // Back of the queue. The fair semaphore hands our slot to whoever waited longest.
+    private void yieldTurn() {
+        if (!slots.hasQueuedThreads()) return; // Nobody's waiting: keep going
+        slots.release();
+        slots.acquireUninterruptibly();
+    }
+
+    @Override
+    public void close() {
+        threads.close(); // Waits for every submitted script to finish
+        channels.clear();
+    }
+}
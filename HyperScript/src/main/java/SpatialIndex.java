@@ -0,0 +1,159 @@
+// In src/main/java/SpatialIndex.java
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// A 2D index over entity positions, so "who is near me?" doesn't have to
+// compare every tank against every other tank.
+//
+// The World keeps one of these up to date for every entity with a 'position2'
+// role. Backends only decide WHERE an entry lives (a grid cell, a quadtree node);
+// the bookkeeping of entries and buckets is shared here.
+abstract class SpatialIndex {
+
+    /** One indexed entity and its last known position. */
+    static class Entry {
+        final Entity entity;
+        double x, y;
+        Bucket bucket; // Where the backend put it
+        int slot;      // Its index inside bucket.entries
+
+        Entry(Entity entity) {
+            this.entity = entity;
+        }
+    }
+
+    /** A list of entries with O(1) removal. Grid cells and quadtree nodes are both buckets. */
+    static class Bucket {
+        final List<Entry> entries = new ArrayList<>();
+
+        void add(Entry entry) {
+            entry.bucket = this;
+            entry.slot = entries.size();
+            entries.add(entry);
+        }
+
+        void remove(Entry entry) {
+            // Swap the last entry into the hole, so nothing shifts.
+            Entry last = entries.remove(entries.size() - 1);
+            if (last != entry) {
+                entries.set(entry.slot, last);
+                last.slot = entry.slot;
+            }
+            entry.bucket = null;
+        }
+    }
+
+    // Entries are looked up by archetype and row, so updates never allocate.
+    private final Map<Archetype, Entry[]> entries = new HashMap<>();
+    private int size = 0;
+
+    // =========================================================================
+    // == MAINTENANCE
+    // =========================================================================
+
+    // Inserts the entity if it's new, otherwise moves it.
+    final void update(Archetype archetype, int row, double x, double y) {
+        Entry[] table = entries.get(archetype);
+        if (table == null || row >= table.length) {
+            table = grow(archetype, table, row);
+        }
+
+        Entry entry = table[row];
+        if (entry == null) {
+            entry = new Entry(new Entity(archetype, row));
+            entry.x = x;
+            entry.y = y;
+            table[row] = entry;
+            size++;
+            place(entry);
+        } else if (entry.x != x || entry.y != y) {
+            entry.x = x;
+            entry.y = y;
+            moved(entry);
+        }
+    }
+
+    private Entry[] grow(Archetype archetype, Entry[] table, int row) {
+        int length = Math.max(row + 1, table == null ? 16 : table.length * 2);
+        Entry[] bigger = new Entry[length];
+        if (table != null) System.arraycopy(table, 0, bigger, 0, table.length);
+        entries.put(archetype, bigger);
+        return bigger;
+    }
+
+    // Drops every entry of 'archetype' at or past 'rows', e.g. after a snapshot load shrank it.
+    final void truncate(Archetype archetype, int rows) {
+        Entry[] table = entries.get(archetype);
+        if (table == null) return;
+        for (int row = rows; row < table.length; row++) {
+            if (table[row] == null) continue;
+            removed(table[row]);
+            table[row] = null;
+            size--;
+        }
+    }
+
+    int size() {
+        return size;
+    }
+
+    // Re-inserts everything, e.g. when switching backends.
+    final void copyInto(SpatialIndex other) {
+        for (Entry[] table : entries.values()) {
+            for (Entry entry : table) {
+                if (entry != null) other.update(entry.entity.archetype, entry.entity.row, entry.x, entry.y);
+            }
+        }
+    }
+
+    // =========================================================================
+    // == QUERIES
+    // =========================================================================
+
+    void queryRadius(double x, double y, double radius, List<Object> out) {
+        double radiusSquared = radius * radius;
+        List<Entry> candidates = new ArrayList<>();
+        collect(x - radius, y - radius, x + radius, y + radius, candidates);
+        for (Entry entry : candidates) {
+            double dx = entry.x - x;
+            double dy = entry.y - y;
+            if (dx * dx + dy * dy <= radiusSquared) out.add(entry.entity);
+        }
+    }
+
+    void queryBox(double minX, double minY, double maxX, double maxY, List<Object> out) {
+        List<Entry> candidates = new ArrayList<>();
+        collect(minX, minY, maxX, maxY, candidates);
+        for (Entry entry : candidates) {
+            out.add(entry.entity);
+        }
+    }
+
+    // =========================================================================
+    // == BACKEND HOOKS
+    // =========================================================================
+
+    abstract String name();
+
+    // Put a brand new entry into a bucket.
+    abstract void place(Entry entry);
+
+    // An entry's x/y changed. Move it to another bucket if it has to.
+    abstract void moved(Entry entry);
+
+    // Take an entry out of its bucket for good.
+    abstract void removed(Entry entry);
+
+    // Add every entry inside the box (and ONLY those) to 'out'.
+    abstract void collect(double minX, double minY, double maxX, double maxY, List<Entry> out);
+
+    // -Dhyperscript.spatial=grid (the default) or quadtree.
+    static SpatialIndex fromName(String name) {
+        if (name == null || name.equals("grid")) return new UniformGridIndex(UniformGridIndex.DEFAULT_CELL_SIZE);
+        if (name.equals("quadtree")) return new LooseQuadtreeIndex(LooseQuadtreeIndex.DEFAULT_HALF_SIZE);
+        return null;
+    }
+}
@@ -0,0 +1,84 @@
+// In src/main/java/SpscChannel.java
+
+import java.lang.invoke.VarHandle;
+import java.util.List;
+
+// A Channel for exactly ONE sender and ONE receiver (a classic Lamport ring).
+//
+// Each side owns its index and is the only one to write it. A slot is full
+// when it holds a value, so the receiver only has to look at the slot, never
+// at the sender's index. The sender looks at the receiver's index only when
+// its cached view of it says the ring might be full.
+//
+// "One sender" means one at a time: a script and its coroutines take turns
+// on the Interpreter (see Coroutine), so they count as one.
+final class SpscChannel extends Channel {
+    private static final int PRODUCER = PAD;
+    private static final int CONSUMER = 2 * PAD;
+
+    private final long[] indices = new long[3 * PAD];
+    private long producerLimit;  // Sender only: it may write up to here without looking
+
+    SpscChannel(String name, int capacity) {
+        super(name, capacity);
+        this.producerLimit = this.capacity;
+    }
+
+    @Override
+    boolean offer(Object value) {
+        long producer = (long)INDEX.get(indices, PRODUCER);
+        if (producer >= producerLimit) {
+            producerLimit = (long)INDEX.getAcquire(indices, CONSUMER) + capacity;
+            if (producer >= producerLimit) return false;
+        }
+        ELEMENT.setRelease(buffer, (int)(producer & mask), value);
+        INDEX.setRelease(indices, PRODUCER, producer + 1);
+        VarHandle.fullFence(); // Pairs with take(); see Channel.wakeConsumer
+        wakeConsumer();
+        return true;
+    }
+
+    @Override
+    Object poll() {
+        long consumer = (long)INDEX.get(indices, CONSUMER);
+        int slot = (int)(consumer & mask);
+        Object value = ELEMENT.getAcquire(buffer, slot);
+        if (value == null) return null;
+        ELEMENT.set(buffer, slot, null);
+        INDEX.setRelease(indices, CONSUMER, consumer + 1); // Also publishes the cleared slot
+        return value;
+    }
+
+    @Override
+    int drain(List<Object> into, int limit) {
+        long consumer = (long)INDEX.get(indices, CONSUMER);
+        int taken = 0;
+        while (taken < limit) {
+            int slot = (int)((consumer + taken) & mask);
+            Object value = ELEMENT.getAcquire(buffer, slot);
+            if (value == null) break;
+            ELEMENT.set(buffer, slot, null);
+            into.add(value);
+            taken++;
+        }
+        if (taken > 0) INDEX.setRelease(indices, CONSUMER, consumer + taken); // One write for the batch
+        return taken;
+    }
+
+    @Override
+    int size() {
+        long consumer = (long)INDEX.getAcquire(indices, CONSUMER);
+        long producer = (long)INDEX.getAcquire(indices, PRODUCER);
+        return (int)Math.max(0, Math.min(capacity, producer - consumer));
+    }
+
+    @Override
+    boolean claimSender(Object owner) {
+        return claimSingleSender(owner);
+    }
+
+    @Override
+    String kind() {
+        return "a single-sender channel";
+    }
+}
@@ -11,6 +11,8 @@ abstract class Stmt {
         R visitReturnStmt(Return stmt);
         R visitVarStmt(Var stmt);
         R visitWhileStmt(While stmt);
+        R visitEventsStmt(Events stmt);
+        R visitWaitStmt(Wait stmt);
     }
 
     abstract <R> R accept(Visitor<R> visitor);
@@ -66,9 +68,26 @@ abstract class Stmt {
     }
     
     static class While extends Stmt {
+        final Token keyword; // For errors raised by the loop itself, e.g. running out of fuel
         final Expr condition;
         final Stmt body;
-        While(Expr condition, Stmt body) { this.condition = condition; this.body = body; }
+        While(Token keyword, Expr condition, Stmt body) { this.keyword = keyword; this.condition = condition; this.body = body; }
         @Override <R> R accept(Visitor<R> visitor) { return visitor.visitWhileStmt(this); }
     }
+
+    // An 'Events ... end' block: the handlers the EventLoop calls, e.g. update().
+    static class Events extends Stmt {
+        final Token keyword;
+        final List<Function> handlers;
+        Events(Token keyword, List<Function> handlers) { this.keyword = keyword; this.handlers = handlers; }
+        @Override <R> R accept(Visitor<R> visitor) { return visitor.visitEventsStmt(this); }
+    }
+
+    // 'wait 2 seconds', or 'yield' (duration null): suspends the running coroutine.
+    static class Wait extends Stmt {
+        final Token keyword;
+        final Expr duration;
+        Wait(Token keyword, Expr duration) { this.keyword = keyword; this.duration = duration; }
+        @Override <R> R accept(Visitor<R> visitor) { return visitor.visitWaitStmt(this); }
+    }
 }
\ No newline at end of file
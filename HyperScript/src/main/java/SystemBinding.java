@@ -0,0 +1,41 @@
+// In src/main/java/SystemBinding.java
+
+import java.util.List;
+
+// A System is an Attachment that runs over an Archetype's columns.
+// Class-level Attachments see every column. Fragment-level Attachments are
+// scoped to the columns their Fragment was flattened into, e.g. a Flow attached
+// to 'Fragment Barrel' only covers 'Barrel.length' and 'Barrel.diameter'.
+//
+// The parsed Flow program is bound later by the AttachmentLoader, and may be
+// shared with every other system that attaches the same file.
+class SystemBinding {
+    final String kind;        // 'Flow', 'Manifest' or 'Blueprint'
+    final Token path;         // e.g. 'Physics.hfl', kept as a Token for error lines
+    final String scope;       // The Fragment name, or null for the whole Class
+    final int firstColumn;
+    final int columnCount;
+    private volatile List<Stmt> program; // null until loaded
+
+    SystemBinding(String kind, Token path, String scope, int firstColumn, int columnCount) {
+        this.kind = kind;
+        this.path = path;
+        this.scope = scope;
+        this.firstColumn = firstColumn;
+        this.columnCount = columnCount;
+    }
+
+    void bind(List<Stmt> program) {
+        this.program = program;
+    }
+
+    List<Stmt> program() {
+        return program;
+    }
+
+    @Override
+    public String toString() {
+        return "<system " + kind + ": " + path.lexeme + (scope == null ? "" : " in " + scope) +
+            " [" + firstColumn + ".." + (firstColumn + columnCount) + ")>";
+    }
+}
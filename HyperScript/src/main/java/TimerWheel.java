@@ -0,0 +1,179 @@
+// In src/main/java/TimerWheel.java
+
+import java.util.List;
+
+// Delayed and repeating events, counted in ticks (one fixed step of the
+// EventLoop each).
+//
+//   TimerWheel.Timer shot = wheel.schedule(120, 0, callback);   // in 120 ticks, once
+//   TimerWheel.Timer beat = wheel.schedule(30, 30, callback);   // every 30 ticks
+//   wheel.advance(due);                                         // one tick; what's due is added to 'due'
+//
+// A hierarchical wheel, like the kernel's timers: LEVELS rings of 64 slots.
+// Level 0 holds what's due in the next 64 ticks, one slot per tick; level 1
+// what's due in the next 64*64, one slot per 64 ticks; and so on. Scheduling
+// and cancelling are O(1), and a tick only looks at one slot, however many
+// timers are waiting. When a level wraps, the next slot of the level above is
+// "cascaded": its timers are spread over the finer levels below.
+//
+// Four levels reach 2^24 ticks, over 77 hours at 60 ticks a second. Anything
+// further out sits in the top level and is cascaded again until it's in range.
+//
+// Not thread-safe: it belongs to one EventLoop, which runs on one thread.
+final class TimerWheel {
+    private static final int BITS = 6;
+    private static final int SLOTS = 1 << BITS;
+    private static final int MASK = SLOTS - 1;
+    private static final int LEVELS = 4;
+    private static final long RANGE = 1L << (BITS * LEVELS); // Ticks the wheel can see
+
+    static final class Timer {
+        final long period;       // Ticks between repeats, or 0 for once
+        final Object callback;   // Whatever the owner wants back when it's due
+        long due;                // The tick it fires on
+        boolean cancelled = false;
+
+        // Slot links. A timer is in at most one slot at a time.
+        private Timer previous, next;
+        private Timer[] ring;
+        private int slot;
+
+        private Timer(long due, long period, Object callback) {
+            this.due = due;
+            this.period = period;
+            this.callback = callback;
+        }
+
+        @Override
+        public String toString() {
+            return "<timer" + (period > 0 ? " every " + period + " ticks" : "") + (cancelled ? " cancelled" : "") + ">";
+        }
+    }
+
+    private final Timer[][] wheel = new Timer[LEVELS][SLOTS];
+    private long now = 0;  // The last tick advance() reached
+    private int size = 0;  // Live (scheduled, not cancelled) timers
+
+    long now() {
+        return now;
+    }
+
+    int size() {
+        return size;
+    }
+
+    // Fires 'delay' ticks from now (at least 1), then every 'period' ticks if that's > 0.
+    Timer schedule(long delay, long period, Object callback) {
+        if (period < 0) throw new IllegalArgumentException("Timer period must not be negative: " + period);
+        Timer timer = new Timer(now + Math.max(1, delay), period, callback);
+        insert(timer);
+        size++;
+        return timer;
+    }
+
+    // Takes a timer out of its slot. Cancelling one that's already in a batch
+    // still stops it: whoever dispatches the batch skips cancelled timers.
+    void cancel(Timer timer) {
+        if (timer.cancelled) return;
+        timer.cancelled = true;
+        if (timer.ring == null) return; // A one-shot that already fired
+        unlink(timer);
+        size--;
+    }
+
+    // Moves one tick forward and adds every timer due on it to 'due', in the
+    // order they were scheduled. Repeating timers are already re-armed for
+    // their next tick by the time this returns.
+    void advance(List<Timer> due) {
+        now++;
+        // Top down, so a cascade from level 2 can land in the level-1 slot we cascade next.
+        for (int level = LEVELS - 1; level > 0; level--) {
+            if ((now & ((1L << (BITS * level)) - 1)) == 0) {
+                cascade(level, (int)((now >>> (BITS * level)) & MASK), due);
+            }
+        }
+        Timer timer = take(wheel[0], (int)(now & MASK));
+        while (timer != null) {
+            Timer next = timer.next;
+            timer.next = null;
+            fire(timer, due);
+            timer = next;
+        }
+    }
+
+    // =========================================================================
+    // == SLOTS
+    // =========================================================================
+
+    private void fire(Timer timer, List<Timer> due) {
+        due.add(timer);
+        if (timer.period > 0) {
+            timer.due += timer.period;
+            insert(timer);
+        } else {
+            size--;
+        }
+    }
+
+    private void cascade(int level, int slot, List<Timer> due) {
+        Timer timer = take(wheel[level], slot);
+        while (timer != null) {
+            Timer next = timer.next;
+            timer.next = null;
+            if (timer.due <= now) fire(timer, due); // Due exactly on the tick we cascaded at
+            else insert(timer);
+            timer = next;
+        }
+    }
+
+    // A timer 'delay' ticks out goes in the first level whose slots cover it.
+    private void insert(Timer timer) {
+        long delay = timer.due - now;
+        long due = delay < RANGE ? timer.due : now + RANGE - 1; // Too far out: park it at the top
+        int level = 0;
+        while (level < LEVELS - 1 && delay >= (1L << (BITS * (level + 1)))) level++;
+        Timer[] ring = wheel[level];
+        int slot = (int)((due >>> (BITS * level)) & MASK);
+
+        // Append, so timers due on the same tick fire in the order they were scheduled.
+        timer.ring = ring;
+        timer.slot = slot;
+        timer.next = null;
+        Timer head = ring[slot];
+        if (head == null) {
+            timer.previous = timer; // The head's 'previous' is the tail
+            ring[slot] = timer;
+        } else {
+            Timer tail = head.previous;
+            tail.next = timer;
+            timer.previous = tail;
+            head.previous = timer;
+        }
+    }
+
+    private void unlink(Timer timer) {
+        Timer[] ring = timer.ring;
+        Timer head = ring[timer.slot];
+        if (timer == head) {
+            ring[timer.slot] = timer.next;
+            if (timer.next != null) timer.next.previous = timer.previous;
+        } else {
+            timer.previous.next = timer.next;
+            if (timer.next != null) timer.next.previous = timer.previous;
+            else head.previous = timer.previous; // It was the tail
+        }
+        timer.ring = null;
+        timer.previous = timer.next = null;
+    }
+
+    // Empties a slot and returns its list, oldest first.
+    private static Timer take(Timer[] ring, int slot) {
+        Timer head = ring[slot];
+        ring[slot] = null;
+        for (Timer timer = head; timer != null; timer = timer.next) {
+            timer.ring = null;
+            timer.previous = null;
+        }
+        return head;
+    }
+}
@@ -26,6 +26,7 @@ public enum TokenType {
     // --- Keywords ---
     AND, ELSE, FALSE, FUN, FOR, IF, NULL, OR,
     PRINT, RETURN, SUPER, THIS, TRUE, VAR, WHILE, FUNCTION, HFL, HMS, HBP,
+    WAIT, YIELD, // Coroutines only
 
     EOF
 }
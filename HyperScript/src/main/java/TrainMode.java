@@ -0,0 +1,81 @@
+// In src/main/java/TrainMode.java
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.Arrays;
+
+// 'HyperScript --train project [runs]': a representative workload for building
+// a JDK AOT cache, for batch jobs that start thousands of short runs.
+//
+//   1. Train (once, after every rebuild of the classes):
+//        java -XX:AOTCacheOutput=hyperscript.aot -cp target/classes HyperScript --train project
+//   2. Run (every time):
+//        java -XX:AOTCache=hyperscript.aot -cp target/classes HyperScript project
+//
+// The 'aot' Maven profile does step 1 for you: 'mvn -Paot package', training
+// on benchmarks/corpus/ballistics.
+//
+// The cache holds every class the training run loaded and linked, plus the
+// method profiles it collected, so a cached start skips class loading and
+// warms up faster. That's also what pre-initializes the runtime: the keyword
+// table (Scanner's static block) and the native globals (Interpreter's
+// constructor) are built from archived classes in microseconds, so they are
+// rebuilt at startup rather than read back from a separate snapshot.
+//
+// Every run gets a fresh Context and goes through the full project pipeline
+// AND check(), so the Scanner, both parsers, the BuildGraph, lowering and the
+// Interpreter all end up in the cache. Output is swallowed; only the timings
+// are printed. If no run gets through, the cache is worthless and the exit
+// status says so.
+class TrainMode {
+    private static final int DEFAULT_RUNS = 20;
+
+    // Returns the exit status: 70 if every run failed.
+    static int run(String project, int runs) throws IOException {
+        PrintStream console = System.out;
+        PrintStream silent = new PrintStream(OutputStream.nullOutputStream());
+        console.println("--- [HyperScript Training on " + project + ", " + runs + " runs] ---");
+
+        long[] nanos = new long[runs];
+        int failed = 0;
+        Context commandLine = HyperScript.context;
+        try {
+            for (int i = 0; i < runs; i++) {
+                long start = System.nanoTime();
+                HyperScript.context = new Context(silent, silent);
+                if (HyperScript.run(project) != 0) failed++;
+                HyperScript.context = new Context(silent, silent);
+                HyperScript.check(project);
+                nanos[i] = System.nanoTime() - start;
+            }
+        } finally {
+            HyperScript.context = commandLine;
+        }
+
+        // A project that fails to build still trains the front end, but
+        // never reaches the Interpreter. Worth knowing about; fatal if no run
+        // got that far.
+        if (failed == runs) {
+            System.err.println("All " + runs + " training runs failed. Run the project normally to see why.");
+            return 70;
+        }
+        if (failed > 0) {
+            System.err.println("Warning: " + failed + " of " + runs + " training runs failed. " +
+                "Run the project normally to see why.");
+        }
+        long first = nanos[0];
+        long[] sorted = nanos.clone();
+        Arrays.sort(sorted);
+        console.printf("First run %.2f ms, median %.2f ms, fastest %.2f ms.%n",
+            first / 1e6, sorted[runs / 2] / 1e6, sorted[0] / 1e6);
+        return 0;
+    }
+
+    static int run(String[] args) throws IOException {
+        String project = args.length > 1 ? args[1] : "project";
+        int runs = args.length > 2 ? Integer.parseInt(args[2]) : DEFAULT_RUNS;
+        if (runs < 1) runs = 1;
+        return run(project, runs);
+    }
+}
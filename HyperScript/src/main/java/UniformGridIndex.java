@@ -0,0 +1,87 @@
+// In src/main/java/UniformGridIndex.java
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// The simplest spatial index: chop the plane into square cells and hash them.
+// Great when entities are spread fairly evenly and queries are about one cell wide.
+class UniformGridIndex extends SpatialIndex {
+    static final double DEFAULT_CELL_SIZE = 64.0;
+
+    private static class Cell extends Bucket {
+        final long key;
+        Cell(long key) { this.key = key; }
+    }
+
+    private final double cellSize;
+    private final Map<Long, Cell> cells = new HashMap<>();
+
+    UniformGridIndex(double cellSize) {
+        this.cellSize = cellSize;
+    }
+
+    @Override
+    String name() {
+        return "grid";
+    }
+
+    private int cellOf(double coordinate) {
+        return (int)Math.floor(coordinate / cellSize);
+    }
+
+    private static long key(int cellX, int cellY) {
+        return ((long)cellX << 32) | (cellY & 0xffffffffL);
+    }
+
+    @Override
+    void place(Entry entry) {
+        long key = key(cellOf(entry.x), cellOf(entry.y));
+        cells.computeIfAbsent(key, Cell::new).add(entry);
+    }
+
+    @Override
+    void moved(Entry entry) {
+        Cell current = (Cell)entry.bucket;
+        long key = key(cellOf(entry.x), cellOf(entry.y));
+        // Most moves stay inside the same cell, and then there's nothing to do.
+        if (current.key == key) return;
+
+        current.remove(entry);
+        if (current.entries.isEmpty()) cells.remove(current.key);
+        cells.computeIfAbsent(key, Cell::new).add(entry);
+    }
+
+    @Override
+    void removed(Entry entry) {
+        Cell current = (Cell)entry.bucket;
+        current.remove(entry);
+        if (current.entries.isEmpty()) cells.remove(current.key);
+    }
+
+    @Override
+    void collect(double minX, double minY, double maxX, double maxY, List<Entry> out) {
+        int fromX = cellOf(minX), toX = cellOf(maxX);
+        int fromY = cellOf(minY), toY = cellOf(maxY);
+
+        // A huge box covers more cells than exist, so just scan the live ones.
+        long span = ((long)toX - fromX + 1) * ((long)toY - fromY + 1);
+        if (span > cells.size()) {
+            for (Cell cell : cells.values()) collectFrom(cell, minX, minY, maxX, maxY, out);
+            return;
+        }
+
+        for (int x = fromX; x <= toX; x++) {
+            for (int y = fromY; y <= toY; y++) {
+                Cell cell = cells.get(key(x, y));
+                if (cell != null) collectFrom(cell, minX, minY, maxX, maxY, out);
+            }
+        }
+    }
+
+    private static void collectFrom(Cell cell, double minX, double minY, double maxX, double maxY, List<Entry> out) {
+        for (Entry entry : cell.entries) {
+            if (entry.x >= minX && entry.x <= maxX && entry.y >= minY && entry.y <= maxY) out.add(entry);
+        }
+    }
+}
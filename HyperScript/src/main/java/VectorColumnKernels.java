@@ -0,0 +1,26 @@
+// In src/main/java/VectorColumnKernels.java
+
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.VectorSpecies;
+
+// SIMD versions of the ColumnKernels, using the incubating Vector API.
+// NEVER call this directly: go through ColumnKernels, which checks that the
+// jdk.incubator.vector module was actually added to the running JVM.
+final class VectorColumnKernels {
+    private static final VectorSpecies<Double> SPECIES = DoubleVector.SPECIES_PREFERRED;
+
+    private VectorColumnKernels() {}
+
+    static void axpy(double[] target, double[] source, double factor, int from, int to) {
+        int i = from;
+        int upper = from + SPECIES.loopBound(to - from);
+        for (; i < upper; i += SPECIES.length()) {
+            DoubleVector t = DoubleVector.fromArray(SPECIES, target, i);
+            DoubleVector s = DoubleVector.fromArray(SPECIES, source, i);
+            // mul + add rather than fma, so results match the scalar loop bit for bit.
+            t.add(s.mul(factor)).intoArray(target, i);
+        }
+        // The tail that doesn't fill a whole vector.
+        ColumnKernels.scalarAxpy(target, source, factor, i, to);
+    }
+}
@@ -0,0 +1,188 @@
+// In src/main/java/WatchMode.java
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// 'HyperScript --watch project': run the project once, then keep the process
+// (and everything in it) alive and hot-reload edits as they are saved.
+//
+//   .hfl edited -> every function in it is re-defined in the globals, and every
+//                  system attached to it is re-bound. Top-level statements are
+//                  NOT run again, so variables and entities keep their values.
+//   .hbp edited -> its symbols are re-declared and new Classes are added.
+//                  Existing archetypes keep their entities if the layout is the
+//                  same; if it changed, we warn and keep the old one.
+//
+// Only what the BuildGraph reports as changed is touched, so a reload costs
+// one incremental build plus a map update per function.
+class WatchMode {
+    // Editors often write a file in several steps (truncate, write, rename).
+    // Wait until the directory has been quiet this long before rebuilding.
+    private static final long DEBOUNCE_MILLIS = 40;
+
+    static void run(String dir) throws IOException {
+        System.out.println("--- [HyperScript Engine Started: watch mode] ---");
+        System.out.println("Project directory: " + dir);
+
+        Path projectDir = Paths.get(dir);
+        if (!Files.isDirectory(projectDir)) throw new NoSuchFileException(dir); // Nothing to watch
+        BuildGraph graph = new BuildGraph(projectDir);
+        try {
+            if (HyperScript.loadProject(graph)) {
+                Path entryPoint = graph.entryPoint();
+                System.out.println("Executing entry point: " + entryPoint);
+                HyperScript.executeFlow(graph.flowProgram(entryPoint), entryPoint.getFileName().toString());
+            }
+        } catch (IOException error) {
+            HyperScript.cannotBuild(error); // No .core file yet, say: keep watching for one
+        } catch (UncheckedIOException error) {
+            HyperScript.cannotBuild(error.getCause());
+        }
+        // Errors no longer end the process: the next save gets another go.
+        HyperScript.context.hadError = false;
+        HyperScript.context.hadRuntimeError = false;
+
+        try (WatchService watcher = FileSystems.getDefault().newWatchService()) {
+            graph.projectDir().register(watcher,
+                StandardWatchEventKinds.ENTRY_CREATE,
+                StandardWatchEventKinds.ENTRY_MODIFY);
+            System.out.println("\n--- Watching " + graph.projectDir() + " (Ctrl+C to stop) ---");
+
+            while (true) {
+                WatchKey key = watcher.take();
+                boolean relevant = drain(key);
+
+                // --- DEBOUNCE: swallow the rest of this burst of events. ---
+                WatchKey next;
+                while ((next = watcher.poll(DEBOUNCE_MILLIS, TimeUnit.MILLISECONDS)) != null) {
+                    relevant |= drain(next);
+                }
+                if (relevant) tryReload(graph);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // Consumes a key's events. True if any of them was a source file.
+    private static boolean drain(WatchKey key) {
+        boolean relevant = false;
+        for (WatchEvent<?> event : key.pollEvents()) {
+            if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                relevant = true; // We lost track; let the build graph sort it out.
+                continue;
+            }
+            String name = event.context().toString();
+            if (name.endsWith(".hfl") || name.endsWith(".hbp") || name.endsWith(".core")) relevant = true;
+        }
+        key.reset();
+        return relevant;
+    }
+
+    // =========================================================================
+    // == RELOADING
+    // =========================================================================
+
+    // A project that can't be built right now (its .core file mid-rename, say)
+    // is reported, and the next save gets another go.
+    private static void tryReload(BuildGraph graph) {
+        try {
+            reload(graph);
+        } catch (IOException error) {
+            HyperScript.cannotBuild(error);
+        } catch (UncheckedIOException error) {
+            HyperScript.cannotBuild(error.getCause());
+        }
+        HyperScript.context.hadError = false;
+    }
+
+    private static void reload(BuildGraph graph) throws IOException {
+        long start = System.nanoTime();
+        BuildGraph.Result result = graph.build();
+        if (result.changed.isEmpty()) return; // Touched, but not actually edited
+
+        System.out.println("\n" + result);
+        if (HyperScript.context.hadError) {
+            System.out.println("Reload skipped: fix the errors above and save again.");
+            HyperScript.context.hadError = false;
+            return;
+        }
+
+        World world = HyperScript.context.interpreter.world;
+        for (Path file : result.changed) {
+            String name = file.getFileName().toString();
+            if (name.endsWith(".hbp")) {
+                reloadBlueprint(graph, world, file);
+            } else if (name.endsWith(".hfl")) {
+                reloadFlow(graph, world, file);
+            }
+        }
+        HyperScript.context.hadError = false;
+        HyperScript.context.hadRuntimeError = false;
+
+        // How long the save took to take effect, as the user sees it.
+        long editToEffect = System.currentTimeMillis() - latestChange(result.changed);
+        System.out.printf("Reload done in %.2f ms (%d ms after the save).%n",
+            (System.nanoTime() - start) / 1e6, editToEffect);
+    }
+
+    private static void reloadFlow(BuildGraph graph, World world, Path file) {
+        List<Stmt> program = graph.flowProgram(file);
+        int swapped = 0;
+        for (Stmt statement : program) {
+            if (statement instanceof Stmt.Function) {
+                Stmt.Function function = (Stmt.Function)statement;
+                HyperScript.context.interpreter.globals.define(function.name.lexeme, new HyperScriptFunction(function));
+                swapped++;
+            }
+        }
+        int rebound = HyperScript.context.attachments == null ? 0
+            : HyperScript.context.attachments.reload(file, program, world.archetypes());
+        System.out.println("Reloaded " + file.getFileName() + ": " + swapped + " functions swapped in, " +
+            rebound + " systems re-bound.");
+    }
+
+    private static void reloadBlueprint(BuildGraph graph, World world, Path file) {
+        String name = file.getFileName().toString();
+        List<BlueprintStmt> statements = graph.blueprints().get(file);
+        if (statements == null) return;
+
+        BlueprintSymbols symbols = world.symbols();
+        symbols.redeclare(statements, name);
+        symbols.analyze();
+        if (HyperScript.context.hadError) {
+            System.out.println("Reload of " + name + " skipped: fix the errors above and save again.");
+            return;
+        }
+
+        for (String skipped : world.reload(statements, name)) {
+            System.err.println("Warning: the layout of Class '" + skipped + "' changed. " +
+                "Its entities can't be carried over; restart to pick up the new layout.");
+        }
+        if (HyperScript.context.attachments != null) HyperScript.context.attachments.bindAll(world.archetypes());
+        System.out.println("Reloaded " + name + ".");
+    }
+
+    private static long latestChange(List<Path> files) {
+        long latest = 0;
+        for (Path file : files) {
+            try {
+                latest = Math.max(latest, Files.getLastModifiedTime(file).toMillis());
+            } catch (IOException e) {
+                // Deleted since the build; it doesn't count.
+            }
+        }
+        return latest == 0 ? System.currentTimeMillis() : latest;
+    }
+}
@@ -0,0 +1,181 @@
+// In src/main/java/World.java
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// The World owns every Archetype (one per Blueprint Class) and their entities.
+// This is the "OOP to ECS translation": Classes come in from the Blueprint AST,
+// and come out as primitive columns the bulk kernels can stream over.
+class World {
+    private final Map<String, Archetype> archetypes = new LinkedHashMap<>();
+    // The same archetypes, for other threads (RuntimeMetrics): a fresh array
+    // whenever one is added, so a reader never sees the map mid-change.
+    private volatile Archetype[] published = new Archetype[0];
+
+    // Turns Blueprint Classes into flat Archetypes. It keeps the components and
+    // roles it has seen, so later Blueprints can use types from earlier ones.
+    private final BlueprintLowering lowering = new BlueprintLowering();
+
+    // Every entity with a 'position2' attribute is kept in this index.
+    static final String POSITION_ROLE = "position2";
+    private SpatialIndex spatial = SpatialIndex.fromName(System.getProperty("hyperscript.spatial"));
+    private final SpatialTracker tracker = new SpatialTracker();
+
+    // Shared by every archetype, so change ticks are comparable across the World.
+    private final Archetype.Clock clock = new Archetype.Clock();
+
+    World() {
+        if (RuntimeMetrics.ENABLED) RuntimeMetrics.worldCreated(this);
+    }
+
+    // =========================================================================
+    // == SCHEMA LOADING
+    // =========================================================================
+
+    // Resolve types against a project-wide index instead of file by file.
+    void useSymbols(BlueprintSymbols symbols) {
+        lowering.useSymbols(symbols);
+    }
+
+    BlueprintSymbols symbols() {
+        return lowering.symbols();
+    }
+
+    // Returns the archetypes this Blueprint defined.
+    List<Archetype> load(List<BlueprintStmt> statements, String file) {
+        List<Archetype> lowered = lowering.lower(statements, file);
+        for (Archetype archetype : lowered) {
+            archetypes.put(archetype.name, archetype);
+            archetype.useClock(clock);
+            if (archetype.attributeOfType(POSITION_ROLE) != null) {
+                archetype.setWriteListener(tracker);
+            }
+        }
+        publish();
+        return lowered;
+    }
+
+    // =========================================================================
+    // == ENTITIES
+    // =========================================================================
+
+    Archetype archetype(String name) {
+        return archetypes.get(name);
+    }
+
+    Collection<Archetype> archetypes() {
+        return Collections.unmodifiableCollection(archetypes.values());
+    }
+
+    // Safe to call from any thread. Archetypes added since may be missing.
+    Archetype[] publishedArchetypes() {
+        return published;
+    }
+
+    private void publish() {
+        published = archetypes.values().toArray(new Archetype[0]);
+    }
+
+    // Returns null if there is no Class with that name.
+    Entity spawn(String className) {
+        Archetype archetype = archetypes.get(className);
+        if (archetype == null) return null;
+        int row = archetype.addRow();
+        archetype.markWritten(0, archetype.columnNames().size(), row, row + 1);
+        return new Entity(archetype, row);
+    }
+
+    // Hot reload: lowers the Blueprint again but KEEPS every existing archetype
+    // (and its entities) whose column layout didn't change, only refreshing its
+    // systems. New Classes are added. Classes whose layout changed are left alone,
+    // since their entities can't be carried over; their names are returned.
+    List<String> reload(List<BlueprintStmt> statements, String file) {
+        List<String> skipped = new ArrayList<>();
+        for (Archetype fresh : lowering.lower(statements, file)) {
+            Archetype existing = archetypes.get(fresh.name);
+            if (existing == null) {
+                archetypes.put(fresh.name, fresh);
+                fresh.useClock(clock);
+                if (fresh.attributeOfType(POSITION_ROLE) != null) fresh.setWriteListener(tracker);
+            } else if (existing.columnNames().equals(fresh.columnNames())) {
+                existing.replaceSystems(fresh.systems());
+            } else {
+                skipped.add(fresh.name);
+            }
+        }
+        publish();
+        return skipped;
+    }
+
+    // Sets an archetype to exactly 'rows' rows, dropping index entries past the end.
+    // Used by WorldSnapshot.load, which then overwrites the columns.
+    void restore(Archetype archetype, int rows) {
+        archetype.restore(rows);
+        spatial.truncate(archetype, rows);
+    }
+
+    // =========================================================================
+    // == SPATIAL QUERIES
+    // =========================================================================
+
+    SpatialIndex spatialIndex() {
+        return spatial;
+    }
+
+    // Swaps the backend, carrying every indexed entity over.
+    void setSpatialIndex(SpatialIndex index) {
+        spatial.copyInto(index);
+        spatial = index;
+    }
+
+    // Keeps the spatial index in step with writes to 'position2' columns.
+    private class SpatialTracker implements Archetype.WriteListener {
+        @Override
+        public void written(Archetype archetype, int firstColumn, int columnCount, int fromRow, int toRow) {
+            Archetype.Attribute position = archetype.attributeOfType(POSITION_ROLE);
+            // Only re-index when the write overlaps the position columns.
+            if (firstColumn >= position.offset + position.width || firstColumn + columnCount <= position.offset) return;
+
+            int xColumn = position.offset;
+            int yColumn = position.width > 1 ? position.offset + 1 : position.offset;
+            for (int row = fromRow; row < toRow; row++) {
+                spatial.update(archetype, row, archetype.get(row, xColumn), archetype.get(row, yColumn));
+            }
+        }
+    }
+
+    // =========================================================================
+    // == BULK OPERATIONS
+    // =========================================================================
+
+    // target += source * factor, component by component, for every entity
+    // whose archetype has an attribute of each type.
+    // e.g. integrate("position2", "velocity2", dt) moves everything that moves.
+    // Returns how many entities were touched.
+    int integrate(String targetType, String sourceType, double factor) {
+        long start = RuntimeMetrics.ENABLED ? System.nanoTime() : 0;
+        int touched = 0;
+        for (Archetype archetype : archetypes.values()) {
+            Archetype.Attribute target = archetype.attributeOfType(targetType);
+            Archetype.Attribute source = archetype.attributeOfType(sourceType);
+            if (target == null || source == null || target.width != source.width) continue;
+
+            int size = archetype.size();
+            for (int i = 0; i < target.width; i++) {
+                ColumnKernels.axpy(archetype.column(target.offset + i),
+                                   archetype.column(source.offset + i), factor, 0, size);
+            }
+            archetype.markWritten(target.offset, target.width, 0, size);
+            touched += size;
+        }
+        // A bulk integrate is the World's one built-in system.
+        if (RuntimeMetrics.ENABLED) {
+            RuntimeMetrics.systemRan("integrate(" + targetType + ", " + sourceType + ")", System.nanoTime() - start);
+        }
+        return touched;
+    }
+}
@@ -0,0 +1,17 @@
+// In src/main/java/WorldMetricsMXBean.java
+
+import java.util.Map;
+
+// The ECS side, summed over every live World in this JVM.
+// Published as com.hypertech.hyperscript:type=World (see RuntimeMetrics).
+public interface WorldMetricsMXBean {
+    int getWorlds();
+    int getArchetypes();
+    long getEntities();
+
+    // Per system: how many times it ran, and its average time per run in milliseconds.
+    Map<String, Long> getSystemRuns();
+    Map<String, Double> getSystemFrameMillis();
+
+    void reset();
+}
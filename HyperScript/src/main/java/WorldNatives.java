@@ -0,0 +1,185 @@
+// In src/main/java/WorldNatives.java
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+
+// The Flow-side API for the ECS World.
+//
+//   let ammo = spawn("Ammo")
+//   set(ammo, "speed.x", 40)
+//   integrate("position2", "velocity2", 0.016)   // position += velocity * dt, for everyone
+//   print get(ammo, "position.x")
+final class WorldNatives {
+    private WorldNatives() {}
+
+    static void install(Environment globals) {
+        globals.define("spawn", new NativeFunction("spawn", 1, (interpreter, args) -> {
+            String className = string(args.get(0), "spawn");
+            Entity entity = interpreter.world.spawn(className);
+            if (entity == null) throw new NativeFunction.Failure("No Class named '" + className + "'.");
+            return entity;
+        }));
+
+        globals.define("count", new NativeFunction("count", 1, (interpreter, args) -> {
+            Archetype archetype = archetype(interpreter, args.get(0), "count");
+            return (double)archetype.size();
+        }));
+
+        globals.define("get", new NativeFunction("get", 2, (interpreter, args) -> {
+            Entity entity = entity(args.get(0), "get");
+            return entity.archetype.get(entity.row, column(entity, args.get(1), "get"));
+        }));
+
+        globals.define("set", new NativeFunction("set", 3, (interpreter, args) -> {
+            Entity entity = entity(args.get(0), "set");
+            int column = column(entity, args.get(1), "set");
+            double value = number(args.get(2), "set");
+            entity.archetype.set(entity.row, column, value);
+            return value;
+        }));
+
+        globals.define("integrate", new NativeFunction("integrate", 3, (interpreter, args) -> {
+            String target = string(args.get(0), "integrate");
+            String source = string(args.get(1), "integrate");
+            double factor = number(args.get(2), "integrate");
+            return (double)interpreter.world.integrate(target, source, factor);
+        }));
+
+        installSpatial(globals);
+        installChangeDetection(globals);
+        installSnapshots(globals);
+    }
+
+    // --- Snapshots ---
+    //
+    //   saveWorld("checkpoint.hsw")
+    //   loadWorld("checkpoint.hsw")   // fails fast if the Blueprints changed
+    private static void installSnapshots(Environment globals) {
+        globals.define("saveWorld", new NativeFunction("saveWorld", 1, (interpreter, args) -> {
+            try {
+                return (double)WorldSnapshot.save(interpreter.world, Paths.get(string(args.get(0), "saveWorld")));
+            } catch (IOException error) {
+                throw new NativeFunction.Failure("Could not save world: " + error.getMessage());
+            }
+        }));
+
+        globals.define("loadWorld", new NativeFunction("loadWorld", 1, (interpreter, args) -> {
+            try {
+                return (double)WorldSnapshot.load(interpreter.world, Paths.get(string(args.get(0), "loadWorld")));
+            } catch (IOException error) {
+                throw new NativeFunction.Failure("Could not load world: " + error.getMessage());
+            }
+        }));
+    }
+
+    // --- Change detection ---
+    //
+    //   let moved = query("Ammo", "position")
+    //   ...every frame...
+    //   let dirty = changed(moved)     // only what was written since the last call
+    private static void installChangeDetection(Environment globals) {
+        globals.define("query", new NativeFunction("query", 2, (interpreter, args) -> {
+            Archetype archetype = archetype(interpreter, args.get(0), "query");
+            String attributeName = string(args.get(1), "query");
+            Archetype.Attribute attribute = archetype.attribute(attributeName);
+            if (attribute == null) {
+                throw new NativeFunction.Failure(archetype.name + " has no attribute '" + attributeName + "'.");
+            }
+            return new ChangeQuery(archetype, attribute);
+        }));
+
+        globals.define("changed", new NativeFunction("changed", 1, (interpreter, args) -> {
+            if (!(args.get(0) instanceof ChangeQuery)) {
+                throw new NativeFunction.Failure("'changed' expects a query.");
+            }
+            List<Object> found = new ArrayList<>();
+            ((ChangeQuery)args.get(0)).run(found);
+            return found;
+        }));
+    }
+
+    // --- Spatial queries ---
+    //
+    //   for a tank at (x, y):  let close = nearby(x, y, 50)
+    //   print len(close) .. " targets, first is " .. item(close, 0)
+    private static void installSpatial(Environment globals) {
+        globals.define("nearby", new NativeFunction("nearby", 3, (interpreter, args) -> {
+            List<Object> found = new ArrayList<>();
+            interpreter.world.spatialIndex().queryRadius(number(args.get(0), "nearby"),
+                number(args.get(1), "nearby"), number(args.get(2), "nearby"), found);
+            return found;
+        }));
+
+        globals.define("within", new NativeFunction("within", 4, (interpreter, args) -> {
+            List<Object> found = new ArrayList<>();
+            interpreter.world.spatialIndex().queryBox(number(args.get(0), "within"),
+                number(args.get(1), "within"), number(args.get(2), "within"),
+                number(args.get(3), "within"), found);
+            return found;
+        }));
+
+        globals.define("spatialIndex", new NativeFunction("spatialIndex", 1, (interpreter, args) -> {
+            String name = string(args.get(0), "spatialIndex");
+            SpatialIndex index = SpatialIndex.fromName(name);
+            if (index == null) throw new NativeFunction.Failure("Unknown spatial index '" + name + "'. Use 'grid' or 'quadtree'.");
+            interpreter.world.setSpatialIndex(index);
+            return name;
+        }));
+
+        // Query results are lists, so Flow needs a way to look inside them.
+        globals.define("len", new NativeFunction("len", 1, (interpreter, args) -> {
+            return (double)list(args.get(0), "len").size();
+        }));
+
+        globals.define("item", new NativeFunction("item", 2, (interpreter, args) -> {
+            List<?> list = list(args.get(0), "item");
+            double index = number(args.get(1), "item");
+            if (index < 0 || index >= list.size() || index != Math.floor(index)) {
+                throw new NativeFunction.Failure("Index " + index + " out of range for a list of " + list.size() + ".");
+            }
+            return list.get((int)index);
+        }));
+    }
+
+    // =========================================================================
+    // == ARGUMENT HELPERS
+    // =========================================================================
+
+    private static String string(Object value, String function) {
+        if (value instanceof String) return (String)value;
+        throw new NativeFunction.Failure("'" + function + "' expects a string.");
+    }
+
+    private static double number(Object value, String function) {
+        if (value instanceof Double) return (double)value;
+        throw new NativeFunction.Failure("'" + function + "' expects a number.");
+    }
+
+    private static List<?> list(Object value, String function) {
+        if (value instanceof List) return (List<?>)value;
+        throw new NativeFunction.Failure("'" + function + "' expects a list.");
+    }
+
+    private static Entity entity(Object value, String function) {
+        if (value instanceof Entity) return (Entity)value;
+        throw new NativeFunction.Failure("'" + function + "' expects an entity.");
+    }
+
+    private static Archetype archetype(Interpreter interpreter, Object value, String function) {
+        String className = string(value, function);
+        Archetype archetype = interpreter.world.archetype(className);
+        if (archetype == null) throw new NativeFunction.Failure("No Class named '" + className + "'.");
+        return archetype;
+    }
+
+    private static int column(Entity entity, Object value, String function) {
+        String columnName = string(value, function);
+        int column = entity.archetype.columnIndex(columnName);
+        if (column < 0) {
+            throw new NativeFunction.Failure(entity.archetype.name + " has no column '" + columnName + "'.");
+        }
+        return column;
+    }
+}
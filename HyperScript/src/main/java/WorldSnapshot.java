@@ -0,0 +1,168 @@
+// In src/main/java/WorldSnapshot.java
+
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+// Binary save/load of every archetype column in a World.
+//
+// The file is just a small header followed by the raw columns, one after the other:
+//
+//   [magic "HSWS"] [format] [byte order] [schema hash] [archetype count]
+//   [row count per archetype...]
+//   [padding to 8 bytes]
+//   [Tank.weight x rows] [Tank.height x rows] ... [Ammo.speed.x x rows] ...
+//
+// Columns are moved with FileChannel.map, so saving and loading are bulk memory
+// copies instead of a walk over every value. The schema hash is computed from
+// the archetype layouts (names, attribute types, columns), so loading into a
+// World built from different Blueprints fails on the header, before any data is read.
+final class WorldSnapshot {
+    private static final int MAGIC = 0x48535753; // "HSWS"
+    private static final int FORMAT = 1;
+    private static final int LITTLE = 0, BIG = 1;
+
+    private WorldSnapshot() {}
+
+    // =========================================================================
+    // == SAVE
+    // =========================================================================
+
+    // Returns the number of entities written.
+    static long save(World world, Path path) throws IOException {
+        List<Archetype> archetypes = new ArrayList<>(world.archetypes());
+        long dataStart = headerSize(archetypes.size());
+
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+
+            // --- The header ---
+            MappedByteBuffer header = channel.map(FileChannel.MapMode.READ_WRITE, 0, dataStart);
+            header.order(ByteOrder.nativeOrder());
+            header.putInt(MAGIC);
+            header.putInt(FORMAT);
+            header.putInt(ByteOrder.nativeOrder() == ByteOrder.LITTLE_ENDIAN ? LITTLE : BIG);
+            header.putLong(schemaHash(archetypes));
+            header.putInt(archetypes.size());
+            long entities = 0;
+            for (Archetype archetype : archetypes) {
+                header.putInt(archetype.size());
+                entities += archetype.size();
+            }
+
+            // --- The columns, each mapped on its own so files can grow past 2GB ---
+            long position = dataStart;
+            for (Archetype archetype : archetypes) {
+                int rows = archetype.size();
+                for (int column = 0; column < archetype.columnNames().size(); column++) {
+                    if (rows == 0) continue;
+                    MappedByteBuffer region = channel.map(FileChannel.MapMode.READ_WRITE, position, (long)rows * Double.BYTES);
+                    region.order(ByteOrder.nativeOrder());
+                    region.asDoubleBuffer().put(archetype.column(column), 0, rows);
+                    position += (long)rows * Double.BYTES;
+                }
+            }
+            return entities;
+        }
+    }
+
+    // =========================================================================
+    // == LOAD
+    // =========================================================================
+
+    // Replaces the contents of every archetype with the snapshot's.
+    // Returns the number of entities loaded.
+    static long load(World world, Path path) throws IOException {
+        List<Archetype> archetypes = new ArrayList<>(world.archetypes());
+        long dataStart = headerSize(archetypes.size());
+
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            if (channel.size() < headerSize(0)) throw new IOException("Not a world snapshot: " + path);
+
+            // --- Check the header before touching anything ---
+            MappedByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, Math.min(channel.size(), dataStart));
+            if (header.getInt(0) != MAGIC && Integer.reverseBytes(header.getInt(0)) != MAGIC) {
+                throw new IOException("Not a world snapshot: " + path);
+            }
+            // The magic tells us which byte order the file was written in.
+            ByteOrder order = header.order(ByteOrder.BIG_ENDIAN).getInt(0) == MAGIC ? ByteOrder.BIG_ENDIAN : ByteOrder.LITTLE_ENDIAN;
+            header.order(order).position(4);
+            if (header.getInt() != FORMAT) throw new IOException("Unsupported snapshot format in " + path);
+            header.getInt(); // Byte order flag, already known from the magic.
+            if (header.getLong() != schemaHash(archetypes)) {
+                throw new IOException("Snapshot " + path + " was saved from a different Blueprint schema.");
+            }
+            if (header.getInt() != archetypes.size()) {
+                throw new IOException("Snapshot " + path + " has a different number of archetypes.");
+            }
+            // Cut off inside the row counts: nothing past the fixed part was mapped.
+            if (channel.size() < dataStart) throw new IOException("Snapshot " + path + " is truncated.");
+            int[] rows = new int[archetypes.size()];
+            long expected = dataStart;
+            for (int i = 0; i < rows.length; i++) {
+                rows[i] = header.getInt();
+                expected += (long)rows[i] * archetypes.get(i).columnNames().size() * Double.BYTES;
+            }
+            if (channel.size() < expected) throw new IOException("Snapshot " + path + " is truncated.");
+
+            // --- Now the columns ---
+            long position = dataStart;
+            long entities = 0;
+            for (int i = 0; i < rows.length; i++) {
+                Archetype archetype = archetypes.get(i);
+                world.restore(archetype, rows[i]);
+                for (int column = 0; column < archetype.columnNames().size(); column++) {
+                    if (rows[i] == 0) continue;
+                    MappedByteBuffer region = channel.map(FileChannel.MapMode.READ_ONLY, position, (long)rows[i] * Double.BYTES);
+                    region.order(order);
+                    region.asDoubleBuffer().get(archetype.column(column), 0, rows[i]);
+                    position += (long)rows[i] * Double.BYTES;
+                }
+                // Everything is new as far as change queries and the spatial index are concerned.
+                archetype.markWritten(0, archetype.columnNames().size(), 0, rows[i]);
+                entities += rows[i];
+            }
+            return entities;
+        }
+    }
+
+    // =========================================================================
+    // == HELPERS
+    // =========================================================================
+
+    // magic, format, byte order, hash, count, then one row count each, rounded up to 8.
+    private static long headerSize(int archetypeCount) {
+        long size = 4 + 4 + 4 + 8 + 4 + 4L * archetypeCount;
+        return (size + 7) & ~7L;
+    }
+
+    // FNV-1a over the layout of every archetype, in World order.
+    static long schemaHash(List<Archetype> archetypes) {
+        long hash = 0xcbf29ce484222325L;
+        for (Archetype archetype : archetypes) {
+            hash = mix(hash, "class " + archetype.name);
+            for (Archetype.Attribute attribute : archetype.attributes()) {
+                hash = mix(hash, attribute.name + ":" + attribute.type + "/" + attribute.width);
+            }
+            for (String column : archetype.columnNames()) {
+                hash = mix(hash, column);
+            }
+        }
+        return hash;
+    }
+
+    private static long mix(long hash, String text) {
+        for (int i = 0; i < text.length(); i++) {
+            hash ^= text.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        hash ^= '\n'; // Field separator, so "ab"+"c" differs from "a"+"bc".
+        hash *= 0x100000001b3L;
+        return hash;
+    }
+}
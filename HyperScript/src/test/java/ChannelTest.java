@@ -0,0 +1,199 @@
+// In src/test/java/ChannelTest.java
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+// Every value sent arrives exactly once, in order per sender, whatever the
+// threads do; and each end has only the owners it may have.
+class ChannelTest {
+    private static final int SENDERS = 4;
+    private static final int PER_SENDER = 100_000;
+
+    // =========================================================================
+    // == MANY THREADS
+    // =========================================================================
+
+    // Sender s sends s * PER_SENDER + 0, 1, 2...; the receiver checks that each
+    // sender's values come in order with no gaps, which rules out losing one
+    // or getting one twice.
+    private static void sendAndCheck(Channel channel, int senders, boolean drain) throws InterruptedException {
+        List<Thread> threads = new ArrayList<>();
+        for (int s = 0; s < senders; s++) {
+            int first = s * PER_SENDER;
+            Thread sender = new Thread(() -> {
+                try {
+                    for (int i = 0; i < PER_SENDER; i++) channel.put(first + i);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+            threads.add(sender);
+            sender.start();
+        }
+
+        int[] next = new int[senders]; // What each sender's next value must be
+        List<Object> batch = new ArrayList<>();
+        for (int received = 0; received < senders * PER_SENDER; ) {
+            batch.clear();
+            if (!drain || channel.drain(batch, 64) == 0) batch.add(channel.take());
+            for (Object value : batch) {
+                int sent = (Integer)value;
+                int sender = sent / PER_SENDER;
+                assertEquals(sender * PER_SENDER + next[sender], sent);
+                next[sender]++;
+                received++;
+            }
+        }
+        for (Thread sender : threads) sender.join();
+        assertNull(channel.poll());
+        assertEquals(0, channel.size());
+    }
+
+    @Test
+    void mpscLosesAndRepeatsNothing() throws InterruptedException {
+        sendAndCheck(new MpscChannel("test", 256), SENDERS, false);
+    }
+
+    @Test
+    void mpscDrainLosesAndRepeatsNothing() throws InterruptedException {
+        sendAndCheck(new MpscChannel("test", 256), SENDERS, true);
+    }
+
+    @Test
+    void spscLosesAndRepeatsNothing() throws InterruptedException {
+        sendAndCheck(new SpscChannel("test", 256), 1, false);
+    }
+
+    @Test
+    void spscDrainLosesAndRepeatsNothing() throws InterruptedException {
+        sendAndCheck(new SpscChannel("test", 256), 1, true);
+    }
+
+    // =========================================================================
+    // == A SENDER HALFWAY THROUGH (MpscChannel)
+    // =========================================================================
+
+    @Test
+    void pollWaitsForAClaimedSlot() throws InterruptedException {
+        MpscChannel channel = new MpscChannel("test", 4);
+        long slot = channel.claim();
+        Object[] polled = new Object[1];
+        Thread receiver = new Thread(() -> polled[0] = channel.poll());
+        receiver.start();
+        receiver.join(50);
+        assertTrue(receiver.isAlive()); // Claimed isn't empty: it waits for the value
+        channel.publish(slot, "late");
+        receiver.join(10_000);
+        assertEquals("late", polled[0]);
+    }
+
+    @Test
+    void drainStopsAtAClaimedSlot() {
+        MpscChannel channel = new MpscChannel("test", 4);
+        assertTrue(channel.offer("a"));
+        long slot = channel.claim();
+        assertTrue(channel.offer("c"));
+
+        List<Object> batch = new ArrayList<>();
+        assertEquals(1, channel.drain(batch, 64));
+        assertEquals(List.of("a"), batch);
+        assertEquals(0, channel.drain(batch, 64)); // "c" is ready, but comes after the gap
+
+        channel.publish(slot, "b");
+        batch.clear();
+        assertEquals(2, channel.drain(batch, 64));
+        assertEquals(List.of("b", "c"), batch);
+    }
+
+    @Test
+    void wrapsAroundWithASlotClaimedAtTheEdge() {
+        MpscChannel channel = new MpscChannel("test", 4);
+        for (int i = 0; i < 3; i++) {
+            assertTrue(channel.offer(i));
+            assertEquals(i, channel.poll());
+        }
+        long slot = channel.claim(); // The ring's last slot
+        assertTrue(channel.offer("first after the wrap"));
+        assertTrue(channel.offer("second"));
+        assertTrue(channel.offer("third"));
+        assertFalse(channel.offer("one too many"));
+        assertEquals(-1, channel.claim());
+
+        List<Object> batch = new ArrayList<>();
+        assertEquals(0, channel.drain(batch, 64));
+        channel.publish(slot, "edge");
+        assertEquals("edge", channel.poll());
+        assertEquals(3, channel.drain(batch, 64));
+        assertEquals(List.of("first after the wrap", "second", "third"), batch);
+        assertTrue(channel.offer("room again"));
+    }
+
+    @Test
+    void fullAndEmptyOverManyLaps() {
+        for (Channel channel : List.of(new MpscChannel("test", 4), new SpscChannel("test", 4))) {
+            int sent = 0, received = 0;
+            List<Object> batch = new ArrayList<>();
+            for (int lap = 0; lap < 10; lap++) {
+                while (channel.offer(sent)) sent++;
+                assertEquals(4, channel.size());
+                assertEquals(received++, channel.poll());
+                batch.clear();
+                channel.drain(batch, 2);
+                for (Object value : batch) assertEquals(received++, value);
+            }
+            while (received < sent) assertEquals(received++, channel.poll());
+            assertNull(channel.poll());
+        }
+    }
+
+    // =========================================================================
+    // == OWNERS
+    // =========================================================================
+
+    @Test
+    void oneReceiverOnly() {
+        Channel channel = new MpscChannel("test", 4);
+        Object first = new Object(), second = new Object();
+        assertTrue(channel.claimReceiver(first));
+        assertTrue(channel.claimReceiver(first)); // Asking again is fine
+        assertFalse(channel.claimReceiver(second));
+        assertTrue(channel.claimSender(first));
+        assertTrue(channel.claimSender(second)); // Any number of senders
+    }
+
+    @Test
+    void oneSenderOnSpsc() {
+        Channel channel = new SpscChannel("test", 4);
+        Object first = new Object(), second = new Object();
+        assertTrue(channel.claimSender(first));
+        assertTrue(channel.claimSender(first));
+        assertFalse(channel.claimSender(second));
+        assertTrue(channel.claimReceiver(second)); // The receiving end is separate
+    }
+
+    @Test
+    void aSecondReceivingScriptIsAnError() {
+        ChannelRegistry shared = new ChannelRegistry();
+        ByteArrayOutputStream errors = new ByteArrayOutputStream();
+        PrintStream silent = new PrintStream(OutputStream.nullOutputStream());
+        Context first = new Context(silent, silent);
+        Context second = new Context(silent, new PrintStream(errors, true, StandardCharsets.UTF_8));
+        first.channels = shared;
+        second.channels = shared;
+
+        assertEquals(0, first.eval("tryReceive(channel(\"hits\", 8))\n"));
+        assertEquals(70, second.eval("tryReceive(channel(\"hits\", 8))\n"));
+        assertTrue(errors.toString(StandardCharsets.UTF_8).contains("already has a receiver"));
+        assertEquals(0, second.eval("trySend(channel(\"hits\", 8), 1)\n")); // Sending is still fine
+    }
+}
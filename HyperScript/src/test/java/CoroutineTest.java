@@ -0,0 +1,54 @@
+// In src/test/java/CoroutineTest.java
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+
+// Interrupting a script must stop the coroutine it's waiting on, too.
+class CoroutineTest {
+    private static final String SPINNING_COROUTINE =
+        "function spin()\n" +
+        "    while (true) do\n" +
+        "    end\n" +
+        "end\n" +
+        "coroutine(spin)\n";
+
+    private final ByteArrayOutputStream errors = new ByteArrayOutputStream();
+    private final Context context = new Context(
+        new PrintStream(OutputStream.nullOutputStream()),
+        new PrintStream(errors, true, StandardCharsets.UTF_8));
+
+    @Test
+    void interruptReachesARunningCoroutine() throws InterruptedException {
+        int[] status = { -1 };
+        Thread script = new Thread(() -> status[0] = context.eval(SPINNING_COROUTINE));
+        script.start();
+        Thread.sleep(50); // Let it get into the loop
+        script.interrupt();
+        script.join(10_000);
+        assertFalse(script.isAlive());
+        assertEquals(70, status[0]);
+        assertTrue(errors.toString(StandardCharsets.UTF_8).contains("Script interrupted."));
+    }
+
+    @Test
+    void cancelStopsAScheduledScriptInACoroutine() throws Exception {
+        try (ScriptScheduler scheduler = new ScriptScheduler(1, 10_000)) {
+            Future<Integer> spinning = scheduler.submit(context, SPINNING_COROUTINE);
+            Thread.sleep(50);
+            spinning.cancel(true);
+            // One slot: the next script only gets it once the cancelled one has really stopped.
+            Future<Integer> next = scheduler.submit(new Context(new PrintStream(OutputStream.nullOutputStream()),
+                new PrintStream(OutputStream.nullOutputStream())), "print 1");
+            assertEquals(0, next.get(10, TimeUnit.SECONDS));
+        }
+    }
+}
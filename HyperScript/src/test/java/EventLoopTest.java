@@ -0,0 +1,65 @@
+// In src/test/java/EventLoopTest.java
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import org.junit.jupiter.api.Test;
+
+// Runs with -Dhyperscript.realtime=false (see the surefire configuration):
+// frames come back to back, so an hour of simulation takes well under a second.
+class EventLoopTest {
+    private final ByteArrayOutputStream out = new ByteArrayOutputStream();
+    private final ByteArrayOutputStream errors = new ByteArrayOutputStream();
+    private final Context context = new Context(
+        new PrintStream(out, true, StandardCharsets.UTF_8),
+        new PrintStream(errors, true, StandardCharsets.UTF_8));
+
+    private String run(String source) {
+        assertEquals(0, context.eval(source), errors.toString(StandardCharsets.UTF_8));
+        return out.toString(StandardCharsets.UTF_8).trim();
+    }
+
+    @Test
+    void anHourOfTimersRunsWithoutWaiting() {
+        long start = System.nanoTime();
+        String printed = run(
+            "function done()\n" +
+            "    print elapsed()\n" +
+            "end\n" +
+            "after(3600, done)\n");
+        assertEquals("3600", printed);
+        assertTrue(System.nanoTime() - start < 60_000_000_000L, "Took real time");
+    }
+
+    @Test
+    void everyRepeatsUntilCancelled() {
+        String printed = run(
+            "let ticks = 0\n" +
+            "let beat = null\n" +
+            "function tick()\n" +
+            "    ticks = ticks + 1\n" +
+            "    if (ticks == 5) then\n" +
+            "        cancel(beat)\n" +
+            "        print elapsed()\n" +
+            "    end\n" +
+            "end\n" +
+            "beat = every(2, tick)\n");
+        assertEquals("10", printed);
+    }
+
+    @Test
+    void aCoroutineWaitsInSimulationTime() {
+        String printed = run(
+            "function patrol()\n" +
+            "    wait 30 seconds\n" +
+            "    print elapsed()\n" +
+            "    wait 90 seconds\n" +
+            "    print elapsed()\n" +
+            "end\n" +
+            "coroutine(patrol)\n");
+        assertEquals("30\n120", printed.replace("\r", ""));
+    }
+}
@@ -0,0 +1,77 @@
+// In src/test/java/FlowParserTest.java
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+
+// Nested blocks: the newline after an inner 'end' must not hide the 'end',
+// or 'else', of the block around it.
+class FlowParserTest {
+    private static Object run(String source) {
+        return PreparedScript.compile(source).run(Map.of());
+    }
+
+    @Test
+    void ifInsideWhile() {
+        assertEquals(3.0, run(
+            "let i = 0\n" +
+            "let odd = 0\n" +
+            "while (i < 6) do\n" +
+            "    if (i % 2 == 1) then\n" +
+            "        odd = odd + 1\n" +
+            "    end\n" +
+            "    i = i + 1\n" +
+            "end\n" +
+            "return odd"));
+    }
+
+    @Test
+    void innerEndRightBeforeOuterEnd() {
+        assertEquals(4.0, run(
+            "let i = 0\n" +
+            "let big = 0\n" +
+            "while (i < 6) do\n" +
+            "    i = i + 1\n" +
+            "    if (i > 2) then\n" +
+            "        big = big + 1\n" +
+            "    end\n" +
+            "end\n" +
+            "return big"));
+    }
+
+    @Test
+    void innerEndRightBeforeOuterElse() {
+        String source =
+            "let result = 0\n" +
+            "if (x > 0) then\n" +
+            "    if (x > 10) then\n" +
+            "        result = 2\n" +
+            "    end\n" +
+            "else\n" +
+            "    while (result > -3) do\n" +
+            "        result = result - 1\n" +
+            "    end\n" +
+            "end\n" +
+            "return result";
+        assertEquals(2.0, PreparedScript.compile(source).run(Map.of("x", 20)));
+        assertEquals(0.0, PreparedScript.compile(source).run(Map.of("x", 5)));
+        assertEquals(-3.0, PreparedScript.compile(source).run(Map.of("x", -1)));
+    }
+
+    @Test
+    void blankLinesAroundNestedBlocks() {
+        assertEquals(1.0, run(
+            "let hit = 0\n" +
+            "if (true) then\n" +
+            "\n" +
+            "    while (hit < 1) do\n" +
+            "\n" +
+            "        hit = hit + 1\n" +
+            "\n" +
+            "    end\n" +
+            "\n" +
+            "end\n" +
+            "return hit"));
+    }
+}
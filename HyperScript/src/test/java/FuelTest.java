@@ -0,0 +1,81 @@
+// In src/test/java/FuelTest.java
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import org.junit.jupiter.api.Test;
+
+// limit(N) must allow exactly N steps: the N-th still runs, the one after it
+// doesn't. A step is a call or a loop back-edge (see Fuel).
+class FuelTest {
+    private final ByteArrayOutputStream errors = new ByteArrayOutputStream();
+    private final Context context = new Context(
+        new PrintStream(OutputStream.nullOutputStream()),
+        new PrintStream(errors, true, StandardCharsets.UTF_8));
+
+    private static String calls(int count) {
+        StringBuilder source = new StringBuilder("function f()\n    return 1\nend\n");
+        for (int i = 0; i < count; i++) source.append("f()\n");
+        return source.toString();
+    }
+
+    private static String loop(int iterations) {
+        return "let i = 0\n" +
+            "while (i < " + iterations + ") do\n" +
+            "    i = i + 1\n" +
+            "end\n";
+    }
+
+    @Test
+    void runsExactlyTheLimitOfCalls() {
+        context.fuel.limit(3);
+        assertEquals(0, context.eval(calls(3)), errors.toString(StandardCharsets.UTF_8));
+        assertEquals(0, context.fuel.remaining());
+    }
+
+    @Test
+    void stopsAtTheCallPastTheLimit() {
+        context.fuel.limit(3);
+        assertEquals(70, context.eval(calls(4)));
+        assertTrue(errors.toString(StandardCharsets.UTF_8).contains("Out of fuel after 3 steps."));
+    }
+
+    @Test
+    void runsExactlyTheLimitOfIterations() {
+        context.fuel.limit(10);
+        assertEquals(0, context.eval(loop(10)), errors.toString(StandardCharsets.UTF_8));
+        context.fuel.limit(10);
+        assertEquals(70, context.eval(loop(11)));
+    }
+
+    @Test
+    void zeroAllowsNoSteps() {
+        context.fuel.limit(0);
+        assertEquals(70, context.eval(calls(1)));
+    }
+
+    @Test
+    void slicesDontChangeTheCount() {
+        int[] yields = { 0 };
+        context.fuel.limit(10);
+        context.fuel.yieldEvery(3, () -> yields[0]++);
+        assertEquals(0, context.eval(loop(10)), errors.toString(StandardCharsets.UTF_8));
+        assertEquals(3, yields[0]); // After steps 3, 6 and 9
+        assertEquals(70, context.eval(loop(1)));
+    }
+
+    @Test
+    void interruptStopsAnUnlimitedScript() throws InterruptedException {
+        int[] status = { -1 };
+        Thread script = new Thread(() -> status[0] = context.eval("while (true) do\nend\n"));
+        script.start();
+        script.interrupt();
+        script.join(10_000);
+        assertEquals(70, status[0]);
+        assertTrue(errors.toString(StandardCharsets.UTF_8).contains("Script interrupted."));
+    }
+}
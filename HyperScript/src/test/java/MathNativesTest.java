@@ -0,0 +1,30 @@
+// In src/test/java/MathNativesTest.java
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.Test;
+
+class MathNativesTest {
+    @Test
+    void roundsHalvesUp() {
+        assertEquals(3.0, MathNatives.round(2.5));
+        assertEquals(1.0, MathNatives.round(0.5));
+        assertEquals(-2.0, MathNatives.round(-2.5));
+        assertEquals(-3.0, MathNatives.round(-2.6));
+        assertEquals(2.0, MathNatives.round(2.4));
+    }
+
+    @Test
+    void roundsWhereFloorOfXPlusAHalfWouldnt() {
+        assertEquals(0.0, MathNatives.round(0.49999999999999994));
+        assertEquals(0x1p52 + 1, MathNatives.round(0x1p52 + 1));
+        assertEquals(Double.MAX_VALUE, MathNatives.round(Double.MAX_VALUE));
+    }
+
+    @Test
+    void passesNonFiniteValuesThrough() {
+        assertEquals(Double.NaN, MathNatives.round(Double.NaN));
+        assertEquals(Double.POSITIVE_INFINITY, MathNatives.round(Double.POSITIVE_INFINITY));
+        assertEquals(Double.NEGATIVE_INFINITY, MathNatives.round(Double.NEGATIVE_INFINITY));
+    }
+}
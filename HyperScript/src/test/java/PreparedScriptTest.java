@@ -0,0 +1,39 @@
+// In src/test/java/PreparedScriptTest.java
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+
+// run(inputs) reuses one Context per thread; no run may see what another left.
+class PreparedScriptTest {
+    @Test
+    void bindsInputsAndReturnsTheResult() {
+        PreparedScript rule = PreparedScript.compile("return price * quantity");
+        assertEquals(42.0, rule.run(Map.of("price", 6, "quantity", 7)));
+        assertEquals(10.0, rule.run(Map.of("price", 5, "quantity", 2)));
+    }
+
+    @Test
+    void globalsDontLeakIntoTheNextRun() {
+        PreparedScript.compile("let leaked = 1\nreturn leaked").run(Map.of());
+        PreparedScript reader = PreparedScript.compile("return leaked");
+        assertThrows(Interpreter.RuntimeError.class, () -> reader.run(Map.of()));
+    }
+
+    @Test
+    void shadowedNativesComeBack() {
+        PreparedScript script = PreparedScript.compile("return len");
+        assertEquals(5.0, script.run(Map.of("len", 5)));
+        assertTrue(script.run(Map.of()) instanceof NativeFunction);
+    }
+
+    @Test
+    void aRuntimeErrorDoesntSpoilTheNextRun() {
+        PreparedScript failing = PreparedScript.compile("return missing");
+        assertThrows(Interpreter.RuntimeError.class, () -> failing.run(Map.of()));
+        assertEquals(3.0, PreparedScript.compile("return 1 + 2").run(Map.of()));
+    }
+}
@@ -0,0 +1,104 @@
+// In src/test/java/TimerWheelTest.java
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+
+// Every timer fires on exactly its tick, whichever level it starts in and
+// however many cascades it goes through on the way down.
+class TimerWheelTest {
+    private static final long RANGE = 1L << 24; // What the wheel's four levels can see
+
+    private final TimerWheel wheel = new TimerWheel();
+    private final List<TimerWheel.Timer> due = new ArrayList<>();
+
+    // Advances to 'tick', returning every tick each timer fired on.
+    private Map<TimerWheel.Timer, List<Long>> advanceTo(long tick) {
+        Map<TimerWheel.Timer, List<Long>> fired = new HashMap<>();
+        while (wheel.now() < tick) {
+            wheel.advance(due);
+            for (TimerWheel.Timer timer : due) {
+                fired.computeIfAbsent(timer, key -> new ArrayList<>()).add(wheel.now());
+            }
+            due.clear();
+        }
+        return fired;
+    }
+
+    @Test
+    void firesOnTimeAcrossEveryLevelBoundary() {
+        advanceTo(37); // Off the slot boundaries, so 'now' isn't a multiple of anything
+        long[] delays = {
+            1, 63, 64, 65,                  // Level 0 to 1
+            4095, 4096, 4097,               // Level 1 to 2
+            (1 << 18) - 1, 1 << 18,         // Level 2 to 3
+            RANGE - 1, RANGE, RANGE + 1,    // The edge of the wheel
+            2 * RANGE + 5,                  // Parked at the top more than once
+        };
+        Map<TimerWheel.Timer, Long> expected = new HashMap<>();
+        for (long delay : delays) expected.put(wheel.schedule(delay, 0, delay), wheel.now() + delay);
+
+        Map<TimerWheel.Timer, List<Long>> fired = advanceTo(wheel.now() + 2 * RANGE + 10);
+        for (Map.Entry<TimerWheel.Timer, Long> timer : expected.entrySet()) {
+            assertEquals(List.of(timer.getValue()), fired.get(timer.getKey()), "delay " + timer.getKey().callback);
+        }
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void sameTickFiresInScheduleOrder() {
+        TimerWheel.Timer near = wheel.schedule(4096, 0, "near");
+        advanceTo(4000);
+        TimerWheel.Timer late = wheel.schedule(96, 0, "late"); // Same tick, but from level 1 not 2
+        advanceTo(4095);
+        wheel.advance(due);
+        assertEquals(List.of(near, late), due);
+    }
+
+    @Test
+    void repeatsReArmAcrossLevels() {
+        TimerWheel.Timer fast = wheel.schedule(3, 7, "fast");
+        TimerWheel.Timer slow = wheel.schedule(100, 4096, "slow");
+        Map<TimerWheel.Timer, List<Long>> fired = advanceTo(3 * 4096 + 200);
+
+        List<Long> fastTicks = fired.get(fast);
+        for (int i = 0; i < fastTicks.size(); i++) assertEquals(3 + 7L * i, (long)fastTicks.get(i));
+        assertEquals((3 * 4096 + 200 - 3) / 7 + 1, fastTicks.size());
+        assertEquals(List.of(100L, 4196L, 8292L, 12388L), fired.get(slow));
+        assertEquals(2, wheel.size());
+    }
+
+    @Test
+    void cancelInsideABatchStopsTheRepeat() {
+        TimerWheel.Timer first = wheel.schedule(5, 0, "first");
+        TimerWheel.Timer repeating = wheel.schedule(5, 5, "repeating");
+        advanceTo(4);
+        wheel.advance(due);
+        assertEquals(List.of(first, repeating), due);
+
+        // As a callback earlier in the batch would: the repeat is already re-armed.
+        wheel.cancel(repeating);
+        wheel.cancel(first); // Already fired; must not be counted twice
+        assertTrue(repeating.cancelled);
+        assertEquals(0, wheel.size());
+        due.clear();
+        assertTrue(advanceTo(100).isEmpty());
+    }
+
+    @Test
+    void cancelBeforeACascade() {
+        TimerWheel.Timer far = wheel.schedule(5000, 0, "far");
+        TimerWheel.Timer farther = wheel.schedule(RANGE + 3, 0, "farther");
+        TimerWheel.Timer kept = wheel.schedule(5000, 0, "kept");
+        wheel.cancel(far);
+        wheel.cancel(farther);
+        assertEquals(1, wheel.size());
+        Map<TimerWheel.Timer, List<Long>> fired = advanceTo(RANGE + 10);
+        assertEquals(Map.of(kept, List.of(5000L)), fired);
+    }
+}
@@ -0,0 +1,84 @@
+// In src/test/java/WorldSnapshotTest.java
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import org.junit.jupiter.api.Test;
+
+// Saving and loading a World, what's left behind in the rows a load drops,
+// and files that aren't whole snapshots.
+class WorldSnapshotTest {
+    private static final String UNIT =
+        "Class Unit {\n" +
+        "    Attributes {\n" +
+        "        hp: int\n" +
+        "    }\n" +
+        "}\n";
+
+    private static World world() {
+        World world = new World();
+        world.load(new BlueprintParser(new Scanner(UNIT).scanTokens()).parse(), "Unit.hbp");
+        return world;
+    }
+
+    @Test
+    void spawnAfterLoadStartsFromZero() throws IOException {
+        World world = world();
+        Archetype units = world.archetype("Unit");
+        int hp = units.columnIndex("hp");
+        Path file = Files.createTempFile("world", ".hsw");
+        try {
+            Entity first = world.spawn("Unit");
+            units.set(first.row, hp, 10);
+            WorldSnapshot.save(world, file);
+
+            Entity discarded = world.spawn("Unit");
+            units.set(discarded.row, hp, 99);
+            assertEquals(1, WorldSnapshot.load(world, file));
+            assertEquals(1, units.size());
+            assertEquals(10.0, units.get(first.row, hp));
+
+            Entity fresh = world.spawn("Unit");
+            assertEquals(discarded.row, fresh.row); // The same row, handed out again...
+            assertEquals(0.0, units.get(fresh.row, hp)); // ...but zeroed
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Test
+    void droppedChunksReportNoChanges() throws IOException {
+        World world = world();
+        Archetype units = world.archetype("Unit");
+        Path file = Files.createTempFile("world", ".hsw");
+        try {
+            WorldSnapshot.save(world, file); // No units yet
+            for (int i = 0; i < 2 * Archetype.CHUNK_SIZE; i++) world.spawn("Unit");
+            WorldSnapshot.load(world, file);
+            assertFalse(units.chunkChanged(1, 0, 1, 0));
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Test
+    void truncatedHeaderIsAnIOException() throws IOException {
+        World world = world();
+        Path file = Files.createTempFile("world", ".hsw");
+        try {
+            WorldSnapshot.save(world, file);
+            byte[] bytes = Files.readAllBytes(file);
+            Files.write(file, Arrays.copyOf(bytes, 24)); // Up to the archetype count, none of the row counts
+            IOException error = assertThrows(IOException.class, () -> WorldSnapshot.load(world, file));
+            assertTrue(error.getMessage().contains("truncated"), error.getMessage());
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+}